@@ -0,0 +1,179 @@
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import javax.swing.*;
+
+public class AlgorithmComparison {
+    /**
+     * One algorithm of a comparison: its visualizer and what its measured run cost.
+     */
+    private static final class Contender {
+        final String name;
+        final GraphPanel visualizer;
+        final IntConsumer traverse;
+        // Written by the measured run, before any animation starts
+        long wallNanos;
+        long allocatedBytes = -1;
+        final long[] counts = new long[AlgorithmCounters.Counter.values().length];
+
+        Contender(String name, GraphPanel visualizer, IntConsumer traverse) {
+            this.name = name;
+            this.visualizer = visualizer;
+            this.traverse = traverse;
+        }
+    }
+
+    // Keeps the measured run free of pacing; only its final state is published
+    private static final AnimationScheduler.StepListener UNPACED = new AnimationScheduler.StepListener() {
+        @Override
+        public void stepCompleted() {
+        }
+
+        @Override
+        public void runFinished() {
+        }
+    };
+
+    /**
+     * Runs several algorithms on the same graph side by side, each in its own split pane with its own
+     * state buffer and playback controls and on its own thread. Every algorithm first runs once without
+     * animation to measure its wall time, counters and the bytes its thread allocates. These runs take
+     * place one after another and before the panes are shown, so that neither the other algorithms nor
+     * repaints compete with them; the results are printed and reported above the panes, and then every
+     * algorithm runs again animated.
+     *
+     * @param graph the graph, copied once into an immutable CsrGraph that every algorithm shares
+     * @param algorithms names among dijkstra, bf, spfa, fw and johnson
+     */
+    public static void compare(Graph graph, String... algorithms) throws Exception {
+        Graph shared = CsrGraph.copyOf(graph);
+        // Lay the graph out once; every visualizer then finds the cached layout
+        GraphPanel.prepareLayout(shared);
+
+        List<Contender> contenders = new ArrayList<>();
+        boolean needsSource = false;
+        for (String algorithm : algorithms) {
+            contenders.add(create(algorithm, shared));
+            needsSource |= !algorithm.equals("fw") && !algorithm.equals("johnson");
+        }
+
+        int startVertex = 0;
+        if (needsSource) {
+            startVertex = Integer.parseInt(JOptionPane.showInputDialog(null,
+                    "Enter the start vertex (0 to " + (shared.getNumVertices() - 1) + "):"));
+        }
+
+        System.out.println("Measuring " + String.join(", ", algorithms) + "...");
+        for (Contender contender : contenders) {
+            measure(contender, startVertex);
+        }
+        String text = report(shared, contenders);
+        System.out.print(text);
+
+        JTextArea report = new JTextArea(text);
+        report.setEditable(false);
+        report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JFrame frame = new JFrame("Comparison");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.add(report, BorderLayout.NORTH);
+        frame.add(splitPanes(contenders, 0), BorderLayout.CENTER);
+        frame.setSize(1000, 1000);
+        frame.setVisible(true);
+        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        frame.setSize((int) screenSize.getWidth(), (int) screenSize.getHeight());
+
+        for (Contender contender : contenders) {
+            int source = startVertex;
+            new Thread(() -> {
+                contender.visualizer.getScheduler().setStepListener(null);
+                contender.traverse.accept(source);
+            }, contender.name).start();
+        }
+    }
+
+    private static Contender create(String algorithm, Graph graph) {
+        switch (algorithm) {
+            case "dijkstra": {
+                DijkstrasVisualizer visualizer = new DijkstrasVisualizer(graph);
+                return new Contender("Dijkstra", visualizer, visualizer::traverse);
+            }
+            case "bf": {
+                BFVisualizer visualizer = new BFVisualizer(graph);
+                return new Contender("Bellman-Ford", visualizer, visualizer::traverse);
+            }
+            case "spfa": {
+                SPFAVisualizer visualizer = new SPFAVisualizer(graph);
+                return new Contender("SPFA", visualizer, visualizer::traverse);
+            }
+            case "fw": {
+                FWVisualizer visualizer = new FWVisualizer(graph);
+                return new Contender("Floyd-Warshall", visualizer, source -> visualizer.traverse());
+            }
+            case "johnson": {
+                JohnsonVisualizer visualizer = new JohnsonVisualizer(graph);
+                return new Contender("Johnson", visualizer, source -> visualizer.traverse());
+            }
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Nests the contenders from index first on into split panes, each with its name and playback controls.
+     */
+    private static Component splitPanes(List<Contender> contenders, int first) {
+        Contender contender = contenders.get(first);
+        JPanel pane = new JPanel(new BorderLayout());
+        pane.add(new JLabel(contender.name, SwingConstants.CENTER), BorderLayout.NORTH);
+        pane.add(contender.visualizer, BorderLayout.CENTER);
+        pane.add(new PlaybackControls(contender.visualizer.getScheduler()), BorderLayout.SOUTH);
+        if (first == contenders.size() - 1) {
+            return pane;
+        }
+        JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, pane, splitPanes(contenders, first + 1));
+        // Share the width equally among the remaining panes
+        split.setResizeWeight(1.0 / (contenders.size() - first));
+        return split;
+    }
+
+    /**
+     * Runs the contender once without pacing on the calling thread and records its cost.
+     */
+    private static void measure(Contender contender, int source) {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) threads : null;
+        long threadId = Thread.currentThread().getId();
+
+        contender.visualizer.getScheduler().setStepListener(UNPACED);
+        long allocatedBefore = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+        long start = System.nanoTime();
+        contender.traverse.accept(source);
+        contender.wallNanos = System.nanoTime() - start;
+        if (allocations != null) {
+            contender.allocatedBytes = allocations.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        contender.visualizer.getCounters().snapshot(contender.counts);
+    }
+
+    private static String report(Graph graph, List<Contender> contenders) {
+        StringBuilder text = new StringBuilder(String.format(
+                "%,d vertices, %,d edges; every algorithm ran unanimated, one after another, on one thread%n",
+                graph.getNumVertices(), graph.getNumEdges()));
+        text.append(String.format("%-15s %12s %15s %15s %15s %12s %14s%n", "algorithm", "wall ms", "edges scanned",
+                "relaxations", "improved", "heap pushes", "allocated KB"));
+        for (Contender contender : contenders) {
+            text.append(String.format("%-15s %12.3f %,15d %,15d %,15d %,12d %,14d%n", contender.name,
+                    contender.wallNanos / 1e6,
+                    contender.counts[AlgorithmCounters.Counter.EDGES_SCANNED.ordinal()],
+                    contender.counts[AlgorithmCounters.Counter.RELAXATIONS_ATTEMPTED.ordinal()],
+                    contender.counts[AlgorithmCounters.Counter.RELAXATIONS_SUCCEEDED.ordinal()],
+                    contender.counts[AlgorithmCounters.Counter.HEAP_PUSHES.ordinal()],
+                    contender.allocatedBytes < 0 ? -1 : contender.allocatedBytes / 1024));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,255 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class AlgorithmCounters implements AlgorithmRunMXBean {
+    /**
+     * What the algorithms count. Not every algorithm uses every counter.
+     */
+    public enum Counter {
+        // Edges looked at, by any algorithm
+        EDGES_SCANNED,
+        // Vertices discovered (DFS, BFS) or settled (Dijkstra's)
+        VERTICES_VISITED,
+        // Shortest path candidates tested, and those that improved a distance
+        RELAXATIONS_ATTEMPTED,
+        RELAXATIONS_SUCCEEDED,
+        // Dijkstra's priority queue
+        HEAP_PUSHES,
+        HEAP_POPS,
+        // Outer iterations: Bellman-Ford passes, Floyd-Warshall k pivots, BFS levels
+        ROUNDS
+    }
+
+    // Only the most recent runs stay registered, so repeated runs do not fill the MBean server
+    private static final int MAX_REGISTERED_RUNS = 32;
+    private static final ArrayDeque<ObjectName> REGISTERED = new ArrayDeque<>();
+    private static final AtomicLong NEXT_RUN_ID = new AtomicLong();
+    // Only asked isEnabled(), never begun or committed, so one instance serves every thread and a run
+    // nobody records allocates nothing to find out
+    private static final AlgorithmEvents.RunEvent RECORDING_PROBE = new AlgorithmEvents.RunEvent();
+
+    private final String algorithm;
+    private final int numVertices;
+    private final long numEdges;
+    private final long runId;
+    private final LongAdder[] counts;
+    private final long startNanos;
+    private volatile long endNanos;
+    // Flight recorder events of the run and its current phase, null when no recording wants them
+    private AlgorithmEvents.RunEvent runEvent;
+    private AlgorithmEvents.PhaseEvent phaseEvent;
+
+    /**
+     * AlgorithmCounters counts the work done by one algorithm run: edges scanned, relaxations, heap
+     * operations and rounds. The counts are striped LongAdders, so incrementing them in the inner loops
+     * costs an uncontended add and they can be read from any thread while the run is going, e.g. to see
+     * why one run took much longer than another on a similar graph.
+     *
+     * @param algorithm the name of the algorithm
+     * @param graph the graph it runs on
+     */
+    private AlgorithmCounters(String algorithm, Graph graph) {
+        this.algorithm = algorithm;
+        numVertices = graph.getNumVertices();
+        numEdges = graph.getNumEdges();
+        runId = NEXT_RUN_ID.incrementAndGet();
+        counts = new LongAdder[Counter.values().length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+        startNanos = System.nanoTime();
+        endNanos = 0;
+        AlgorithmEvents.RunEvent event = new AlgorithmEvents.RunEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            runEvent = event;
+        }
+    }
+
+    /**
+     * Starts counting a new run and publishes it as an MBean named
+     * VisualizeGraphAlgorithms:type=AlgorithmRun,algorithm=...,run=N.
+     *
+     * @param algorithm the name of the algorithm
+     * @param graph the graph it runs on
+     * @return the counters of the run
+     */
+    public static AlgorithmCounters start(String algorithm, Graph graph) {
+        AlgorithmCounters counters = new AlgorithmCounters(algorithm, graph);
+        counters.register();
+        return counters;
+    }
+
+    /**
+     * Starts counting a run for the flight recorder only, without an MBean, if a recording wants AlgorithmRun
+     * events; its RunEvent and PhaseEvents are committed like those of any run.
+     *
+     * @param algorithm the name of the algorithm
+     * @param graph the graph it runs on
+     * @return the counters of the run, or null when no recording wants them
+     */
+    public static AlgorithmCounters forRecording(String algorithm, Graph graph) {
+        if (!RECORDING_PROBE.isEnabled()) {
+            return null;
+        }
+        return new AlgorithmCounters(algorithm, graph);
+    }
+
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("VisualizeGraphAlgorithms:type=AlgorithmRun,algorithm="
+                    + algorithm + ",run=" + runId);
+            synchronized (REGISTERED) {
+                server.registerMBean(this, name);
+                REGISTERED.addLast(name);
+                if (REGISTERED.size() > MAX_REGISTERED_RUNS) {
+                    server.unregisterMBean(REGISTERED.removeFirst());
+                }
+            }
+        } catch (JMException e) {
+            // The counters work the same without JMX
+        }
+    }
+
+    /**
+     * Adds one to a counter. Called by the algorithm thread.
+     */
+    public void increment(Counter counter) {
+        counts[counter.ordinal()].increment();
+    }
+
+    /**
+     * Adds an amount to a counter. Called by the algorithm thread.
+     */
+    public void add(Counter counter, long amount) {
+        counts[counter.ordinal()].add(amount);
+    }
+
+    /**
+     * Returns the current value of a counter. Any thread.
+     */
+    public long get(Counter counter) {
+        return counts[counter.ordinal()].sum();
+    }
+
+    /**
+     * Copies the current value of every counter into values, indexed by Counter ordinal. The counters are
+     * read without locking, so any thread can sample a running algorithm this way.
+     *
+     * @param values receives the counts, at least Counter.values().length long
+     */
+    public void snapshot(long[] values) {
+        for (int i = 0; i < counts.length; i++) {
+            values[i] = counts[i].sum();
+        }
+    }
+
+    /**
+     * Counts a round and starts a new phase of the run: a Bellman-Ford pass, a Floyd-Warshall pivot or a
+     * BFS level. The previous phase ends here. Called by the algorithm thread.
+     */
+    public void startRound() {
+        endPhase();
+        counts[Counter.ROUNDS.ordinal()].increment();
+        AlgorithmEvents.PhaseEvent event = new AlgorithmEvents.PhaseEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            phaseEvent = event;
+        }
+    }
+
+    private void endPhase() {
+        if (phaseEvent != null) {
+            phaseEvent.end();
+            if (phaseEvent.shouldCommit()) {
+                phaseEvent.setCounts(this);
+                phaseEvent.phase = get(Counter.ROUNDS);
+                phaseEvent.commit();
+            }
+            phaseEvent = null;
+        }
+    }
+
+    /**
+     * Marks the end of the run, which stops the elapsed time and ends the last phase.
+     */
+    public void finish() {
+        endNanos = System.nanoTime();
+        endPhase();
+        if (runEvent != null) {
+            runEvent.end();
+            if (runEvent.shouldCommit()) {
+                runEvent.setCounts(this);
+                runEvent.commit();
+            }
+            runEvent = null;
+        }
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    @Override
+    public long getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return endNanos == 0;
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        long end = endNanos;
+        return ((end == 0 ? System.nanoTime() : end) - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public long getEdgesScanned() {
+        return get(Counter.EDGES_SCANNED);
+    }
+
+    @Override
+    public long getVerticesVisited() {
+        return get(Counter.VERTICES_VISITED);
+    }
+
+    @Override
+    public long getRelaxationsAttempted() {
+        return get(Counter.RELAXATIONS_ATTEMPTED);
+    }
+
+    @Override
+    public long getRelaxationsSucceeded() {
+        return get(Counter.RELAXATIONS_SUCCEEDED);
+    }
+
+    @Override
+    public long getHeapPushes() {
+        return get(Counter.HEAP_PUSHES);
+    }
+
+    @Override
+    public long getHeapPops() {
+        return get(Counter.HEAP_POPS);
+    }
+
+    @Override
+    public long getRounds() {
+        return get(Counter.ROUNDS);
+    }
+}
@@ -0,0 +1,115 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+public class AlgorithmEvents {
+    // Java Flight Recorder events of the algorithms and the renderer. Without a running recording they are
+    // never committed and cost next to nothing; start one with e.g. -XX:StartFlightRecording=filename=run.jfr
+    // and open the file in JDK Mission Control
+
+    // Shown as a folder of the event browser in JDK Mission Control
+    private static final String CATEGORY = "Visualize Graph Algorithms";
+
+    /**
+     * Fields shared by every event: the graph size and the counters of the run at the time of the event,
+     * so CPU, GC and rendering stalls in a recording can be matched to how far the algorithm had come.
+     */
+    abstract static class CountedEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Vertices")
+        int numVertices;
+
+        @Label("Edges")
+        long numEdges;
+
+        @Label("Edges Scanned")
+        long edgesScanned;
+
+        @Label("Vertices Visited")
+        long verticesVisited;
+
+        @Label("Relaxations Attempted")
+        long relaxationsAttempted;
+
+        @Label("Relaxations Succeeded")
+        long relaxationsSucceeded;
+
+        @Label("Heap Pushes")
+        long heapPushes;
+
+        @Label("Heap Pops")
+        long heapPops;
+
+        @Label("Rounds")
+        long rounds;
+
+        /**
+         * Copies the graph size and the current counts of a run into the event. Only called once the event
+         * is known to be recorded, because summing the counters is not free.
+         */
+        void setCounts(AlgorithmCounters counters) {
+            algorithm = counters.getAlgorithm();
+            numVertices = counters.getNumVertices();
+            numEdges = counters.getNumEdges();
+            edgesScanned = counters.getEdgesScanned();
+            verticesVisited = counters.getVerticesVisited();
+            relaxationsAttempted = counters.getRelaxationsAttempted();
+            relaxationsSucceeded = counters.getRelaxationsSucceeded();
+            heapPushes = counters.getHeapPushes();
+            heapPops = counters.getHeapPops();
+            rounds = counters.getRounds();
+        }
+    }
+
+    /**
+     * A whole run of an algorithm, from the start of traverse until it finished.
+     */
+    @Name("VisualizeGraphAlgorithms.AlgorithmRun")
+    @Label("Algorithm Run")
+    @Category(CATEGORY)
+    @Description("One traversal, from start to end, with the final counts")
+    static final class RunEvent extends CountedEvent {
+    }
+
+    /**
+     * One phase of a run: a Bellman-Ford pass, a Floyd-Warshall pivot k or a BFS level.
+     */
+    @Name("VisualizeGraphAlgorithms.AlgorithmPhase")
+    @Label("Algorithm Phase")
+    @Category(CATEGORY)
+    @Description("A Bellman-Ford pass, Floyd-Warshall pivot or BFS level, with the counts at its end")
+    @StackTrace(false)
+    static final class PhaseEvent extends CountedEvent {
+        @Label("Phase")
+        @Description("The pass, pivot or level number, starting at 1")
+        long phase;
+    }
+
+    /**
+     * One paintComponent call of a visualizer.
+     */
+    @Name("VisualizeGraphAlgorithms.Frame")
+    @Label("Frame")
+    @Category(CATEGORY)
+    @Description("One paintComponent call, with the counts of the run it showed")
+    @StackTrace(false)
+    static final class FrameEvent extends CountedEvent {
+        @Label("Visualizer")
+        String visualizer;
+
+        @Label("Clip Width")
+        int clipWidth;
+
+        @Label("Clip Height")
+        int clipHeight;
+
+        @Label("Stale")
+        @Description("The algorithm thread published while the frame was copied, so it is repainted")
+        boolean stale;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * The JMX view of one run, shown under VisualizeGraphAlgorithms/AlgorithmRun in JConsole or JMC.
+ */
+public interface AlgorithmRunMXBean {
+    String getAlgorithm();
+
+    int getNumVertices();
+
+    long getNumEdges();
+
+    boolean isRunning();
+
+    long getElapsedMillis();
+
+    long getEdgesScanned();
+
+    long getVerticesVisited();
+
+    long getRelaxationsAttempted();
+
+    long getRelaxationsSucceeded();
+
+    long getHeapPushes();
+
+    long getHeapPops();
+
+    long getRounds();
+}
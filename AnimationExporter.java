@@ -0,0 +1,282 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+public class AnimationExporter {
+    private final Graph graph;
+    private final Function<Graph, GraphPanel> visualizerFactory;
+    private final int width;
+    private final int height;
+    private final int numThreads;
+
+    /**
+     * AnimationExporter replays an algorithm run into image files without a display and without waiting
+     * between steps. The run records a copy of the vertex state every few steps; the copies are painted
+     * in parallel, each rendering thread using its own visualizer and the regular painting code, and the
+     * finished frames are written in order. At most two frames per thread are in flight at any time, so
+     * memory stays bounded however long the run is.
+     *
+     * @param graph the graph the algorithm runs on
+     * @param visualizerFactory creates a visualizer of the algorithm for the graph
+     * @param width the width of every frame
+     * @param height the height of every frame
+     */
+    public AnimationExporter(Graph graph, Function<Graph, GraphPanel> visualizerFactory, int width, int height) {
+        this.graph = graph;
+        this.visualizerFactory = visualizerFactory;
+        this.width = width;
+        this.height = height;
+        numThreads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Receives the rendered frames in order.
+     */
+    public interface FrameWriter {
+        void write(BufferedImage frame) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    /**
+     * Runs the algorithm and writes one frame every stepsPerFrame steps, plus the final state.
+     *
+     * @param run starts the algorithm on the given visualizer, e.g. v -> ((BFSVisualizer) v).traverse(0)
+     * @param stepsPerFrame the number of algorithm steps between two frames
+     * @param writer receives the frames
+     * @return the number of frames written
+     * @throws IOException if writing a frame fails
+     */
+    public int export(Consumer<GraphPanel> run, int stepsPerFrame, FrameWriter writer) throws IOException {
+        // Every visualizer must draw the same finished layout, so compute it before creating any
+        GraphPanel.prepareLayout(graph);
+        GraphPanel driver = createVisualizer();
+        ThreadLocal<GraphPanel> renderers = ThreadLocal.withInitial(this::createVisualizer);
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads, task -> {
+            Thread thread = new Thread(task, "Frame renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<BufferedImage>> pending = new ArrayDeque<>();
+        int maxPending = numThreads * 2;
+        int[] counts = new int[2]; // steps seen, frames written
+        IOException[] failure = new IOException[1];
+
+        Runnable submitFrame = () -> {
+            VertexStateBuffer.Snapshot frame = driver.captureSnapshot();
+            pending.add(pool.submit(() -> render(renderers.get(), frame)));
+            // Wait for the oldest frame when enough are in flight, which bounds memory and keeps the order
+            while (pending.size() >= maxPending && failure[0] == null) {
+                writeOldest(pending, writer, failure);
+                counts[1]++;
+            }
+        };
+        driver.getScheduler().setStepListener(new AnimationScheduler.StepListener() {
+            @Override
+            public void stepCompleted() {
+                if (++counts[0] % stepsPerFrame == 0) {
+                    submitFrame.run();
+                }
+            }
+
+            @Override
+            public void runFinished() {
+                submitFrame.run();
+            }
+        });
+
+        try {
+            submitFrame.run();
+            run.accept(driver);
+            while (!pending.isEmpty() && failure[0] == null) {
+                writeOldest(pending, writer, failure);
+                counts[1]++;
+            }
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } finally {
+            pool.shutdownNow();
+            writer.close();
+        }
+        return counts[1];
+    }
+
+    private static void writeOldest(ArrayDeque<Future<BufferedImage>> pending, FrameWriter writer, IOException[] failure) {
+        try {
+            writer.write(pending.poll().get());
+        } catch (IOException e) {
+            failure[0] = e;
+        } catch (ExecutionException e) {
+            failure[0] = new IOException("Rendering a frame failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure[0] = new IOException("Interrupted while exporting", e);
+        }
+    }
+
+    private GraphPanel createVisualizer() {
+        GraphPanel visualizer = visualizerFactory.apply(graph);
+        visualizer.setSize(width, height);
+        visualizer.fitToView();
+        return visualizer;
+    }
+
+    private BufferedImage render(GraphPanel visualizer, VertexStateBuffer.Snapshot frame) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(visualizer.getBackground());
+        g2d.fillRect(0, 0, width, height);
+        g2d.setFont(visualizer.getFont());
+        visualizer.paintFrame(g2d, frame);
+        g2d.dispose();
+        return image;
+    }
+
+    /**
+     * Writes frames as frame_000000.png, frame_000001.png, ... into a directory.
+     *
+     * @param directory the directory, created if needed
+     * @return the writer
+     */
+    public static FrameWriter pngSequence(File directory) {
+        directory.mkdirs();
+        return new FrameWriter() {
+            private int index = 0;
+
+            @Override
+            public void write(BufferedImage frame) throws IOException {
+                ImageIO.write(frame, "png", new File(directory, String.format("frame_%06d.png", index++)));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Writes frames into one looping animated GIF.
+     *
+     * @param file the GIF file
+     * @param frameDelayMillis the time each frame is shown
+     * @return the writer
+     * @throws IOException if the file cannot be created
+     */
+    public static FrameWriter animatedGif(File file, int frameDelayMillis) throws IOException {
+        ImageWriter gifWriter = ImageIO.getImageWritersByFormatName("gif").next();
+        ImageOutputStream output = ImageIO.createImageOutputStream(file);
+        gifWriter.setOutput(output);
+        gifWriter.prepareWriteSequence(null);
+        return new FrameWriter() {
+            @Override
+            public void write(BufferedImage frame) throws IOException {
+                IIOMetadata metadata = gifWriter.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(frame), null);
+                String format = metadata.getNativeMetadataFormatName();
+                IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+                IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+                control.setAttribute("disposalMethod", "none");
+                control.setAttribute("userInputFlag", "FALSE");
+                control.setAttribute("transparentColorFlag", "FALSE");
+                control.setAttribute("delayTime", Integer.toString(frameDelayMillis / 10));
+                control.setAttribute("transparentColorIndex", "0");
+                root.appendChild(control);
+
+                // Loop forever (NETSCAPE2.0 application extension)
+                IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+                IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+                loop.setAttribute("applicationID", "NETSCAPE");
+                loop.setAttribute("authenticationCode", "2.0");
+                loop.setUserObject(new byte[]{1, 0, 0});
+                extensions.appendChild(loop);
+                root.appendChild(extensions);
+
+                metadata.setFromTree(format, root);
+                gifWriter.writeToSequence(new IIOImage(frame, null, metadata), null);
+            }
+
+            @Override
+            public void close() throws IOException {
+                gifWriter.endWriteSequence();
+                gifWriter.dispose();
+                output.close();
+            }
+        };
+    }
+
+    /**
+     * Exports an animation of one of the algorithms on a random graph.
+     * Usage: AnimationExporter dfs|bfs|dijkstra|bf|fw numVertices edgeProbability output [stepsPerFrame] [width] [height]
+     * where output ending in .gif produces an animated GIF and anything else a directory of PNG frames.
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 4) {
+            System.err.println("Usage: AnimationExporter dfs|bfs|dijkstra|bf|fw numVertices edgeProbability output "
+                    + "[stepsPerFrame] [width] [height]");
+            System.exit(1);
+        }
+        int numVertices = Integer.parseInt(args[1]);
+        double edgeProbability = Double.parseDouble(args[2]);
+        File output = new File(args[3]);
+        int stepsPerFrame = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        int frameWidth = args.length > 5 ? Integer.parseInt(args[5]) : 1280;
+        int frameHeight = args.length > 6 ? Integer.parseInt(args[6]) : 720;
+
+        // Same weight ranges as the interactive menu
+        Graph graph;
+        AnimationExporter exporter;
+        Consumer<GraphPanel> run;
+        switch (args[0]) {
+            case "dfs":
+                graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -10, 10);
+                exporter = new AnimationExporter(graph, DFSVisualizer::new, frameWidth, frameHeight);
+                run = visualizer -> ((DFSVisualizer) visualizer).traverse(0);
+                break;
+            case "bfs":
+                graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -10, 10);
+                exporter = new AnimationExporter(graph, BFSVisualizer::new, frameWidth, frameHeight);
+                run = visualizer -> ((BFSVisualizer) visualizer).traverse(0);
+                break;
+            case "dijkstra":
+                graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, 1, 10);
+                exporter = new AnimationExporter(graph, DijkstrasVisualizer::new, frameWidth, frameHeight);
+                run = visualizer -> ((DijkstrasVisualizer) visualizer).traverse(0);
+                break;
+            case "bf":
+                graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -5, 10);
+                exporter = new AnimationExporter(graph, BFVisualizer::new, frameWidth, frameHeight);
+                run = visualizer -> ((BFVisualizer) visualizer).traverse(0);
+                break;
+            case "fw":
+                TableView.checkMatrixSize(numVertices);
+                graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -5, 10);
+                exporter = new AnimationExporter(graph, FWVisualizer::new, frameWidth, frameHeight);
+                run = visualizer -> ((FWVisualizer) visualizer).traverse();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + args[0]);
+        }
+
+        FrameWriter writer = args[3].endsWith(".gif") ? animatedGif(output, 100) : pngSequence(output);
+        long start = System.nanoTime();
+        int frames = exporter.export(run, stepsPerFrame, writer);
+        System.out.printf("Wrote %d frames to %s in %.1f s%n", frames, output, (System.nanoTime() - start) / 1e9);
+    }
+}
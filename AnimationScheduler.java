@@ -0,0 +1,230 @@
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.swing.*;
+
+public class AnimationScheduler {
+    // Interval of the frame timer, roughly one display refresh
+    private static final int FRAME_MILLIS = 16;
+
+    private final VertexStateBuffer stateBuffer;
+    private final DirtyRegionRepainter dirtyRegions;
+    private final Timer frameTimer;
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private double stepsPerSecond;
+    private double permits;
+    private boolean paused;
+    private boolean fastForward;
+
+    // Set by every frame tick, cleared when the algorithm thread publishes for that frame
+    private volatile boolean frameDue;
+
+    // When set, steps are reported to it instead of being paced and published
+    private volatile StepListener stepListener;
+
+    // Every step() call, readable from any thread without blocking the algorithm
+    private final LongAdder stepCount = new LongAdder();
+
+    // Control of the current run; once it is stopped, steps no longer wait or publish
+    private volatile RunControl runControl = new RunControl();
+    // Told on the algorithm thread whenever a run installs its control
+    private final CopyOnWriteArrayList<Runnable> runStartListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Receives the steps of a run on the algorithm thread, in place of the timer, e.g. to record frames.
+     */
+    public interface StepListener {
+        /**
+         * Called after every visible step, with the vertex state of that step in place.
+         */
+        void stepCompleted();
+
+        /**
+         * Called once when the run is over, with its final vertex state in place.
+         */
+        void runFinished();
+    }
+
+    /**
+     * AnimationScheduler paces an algorithm thread without sleeping. A Swing timer ticks once per frame
+     * and hands out step permits according to the playback speed; the algorithm calls step() after
+     * every visible change and only waits when it has run out of permits. Changes are published at most
+     * once per frame, so when playback is faster than the display many steps share a single repaint.
+     *
+     * @param stateBuffer the buffer the algorithm writes to
+     * @param dirtyRegions repaints what was published
+     * @param stepsPerSecond the initial playback speed
+     */
+    public AnimationScheduler(VertexStateBuffer stateBuffer, DirtyRegionRepainter dirtyRegions, double stepsPerSecond) {
+        this.stateBuffer = stateBuffer;
+        this.dirtyRegions = dirtyRegions;
+        this.stepsPerSecond = stepsPerSecond;
+        frameTimer = new Timer(FRAME_MILLIS, e -> tick());
+        frameTimer.setCoalesce(true);
+    }
+
+    /**
+     * Marks the end of one visible algorithm step. Called by the algorithm thread; publishes the changes
+     * made so far if a frame is due or if the thread has to wait, then waits for the next step permit.
+     * Skipping the publish in between is safe because unpublished changes stay in the writer's copy of the
+     * state buffer, so readers keep painting the last published frame without waiting.
+     */
+    public void step() {
+        stepCount.increment();
+        if (runControl.isStopped()) {
+            return;
+        }
+        StepListener listener = stepListener;
+        if (listener != null) {
+            listener.stepCompleted();
+            return;
+        }
+        if (!frameTimer.isRunning()) {
+            frameTimer.start();
+        }
+        boolean mustWait;
+        synchronized (lock) {
+            mustWait = !hasPermit();
+        }
+        if (mustWait || frameDue) {
+            frameDue = false;
+            stateBuffer.publish();
+            dirtyRegions.repaintDirty();
+        }
+        synchronized (lock) {
+            try {
+                while (!hasPermit() && !runControl.isStopped()) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                // Keep the interrupt for the caller and let the run continue without pacing
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!fastForward) {
+                permits--;
+            }
+        }
+    }
+
+    /**
+     * Publishes the final state of a run and stops the frame timer. Called by the algorithm thread. Runs
+     * reported to a StepListener publish nothing else, so this is what a visible panel shows after them.
+     */
+    public void finish() {
+        StepListener listener = stepListener;
+        if (listener != null) {
+            listener.runFinished();
+        } else {
+            frameTimer.stop();
+        }
+        stateBuffer.publish();
+        dirtyRegions.repaintDirty();
+    }
+
+    /**
+     * Replaces pacing by the given listener, or goes back to timer driven playback when it is null.
+     * Runs then take no real time between steps.
+     *
+     * @param listener receives every step, or null
+     */
+    public void setStepListener(StepListener listener) {
+        stepListener = listener;
+    }
+
+    /**
+     * Returns the control of the current or last run, e.g. to cancel it. Any thread.
+     */
+    public RunControl getRunControl() {
+        return runControl;
+    }
+
+    /**
+     * Installs the control of a run that is starting, so that a cancelled or expired earlier run does not
+     * stop it, and tells the run start listeners. Called by the algorithm thread through GraphPanel.startRun.
+     *
+     * @param runControl the control of the new run
+     */
+    public void setRunControl(RunControl runControl) {
+        this.runControl = runControl;
+        for (Runnable listener : runStartListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Registers a callback for the start of every run, e.g. to enable a Stop button again. It is called on
+     * the algorithm thread.
+     */
+    public void addRunStartListener(Runnable listener) {
+        runStartListeners.add(listener);
+    }
+
+    /**
+     * Returns how many steps the algorithms paced by this scheduler have taken so far. Any thread.
+     */
+    public long getStepCount() {
+        return stepCount.sum();
+    }
+
+    private boolean hasPermit() {
+        return !paused && (fastForward || permits >= 1);
+    }
+
+    private void tick() {
+        synchronized (lock) {
+            // At most one spare permit is kept while the algorithm is busy, so a slow step is not followed by a burst
+            double perFrame = stepsPerSecond * FRAME_MILLIS / 1000;
+            permits = Math.min(permits + perFrame, perFrame + 1);
+            // The frame ticks also wake a waiting algorithm whose run was cancelled or ran out of time
+            if (hasPermit() || runControl.isStopped()) {
+                lock.notifyAll();
+            }
+        }
+        frameDue = true;
+    }
+
+    public void setStepsPerSecond(double stepsPerSecond) {
+        synchronized (lock) {
+            this.stepsPerSecond = stepsPerSecond;
+        }
+    }
+
+    public double getStepsPerSecond() {
+        synchronized (lock) {
+            return stepsPerSecond;
+        }
+    }
+
+    public void pause() {
+        synchronized (lock) {
+            paused = true;
+        }
+    }
+
+    public void resume() {
+        synchronized (lock) {
+            paused = false;
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isPaused() {
+        synchronized (lock) {
+            return paused;
+        }
+    }
+
+    /**
+     * Lets the algorithm run as fast as it can while still showing one frame per refresh.
+     *
+     * @param fastForward true to stop pacing steps, false to go back to the playback speed
+     */
+    public void setFastForward(boolean fastForward) {
+        synchronized (lock) {
+            this.fastForward = fastForward;
+            lock.notifyAll();
+        }
+    }
+}
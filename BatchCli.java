@@ -0,0 +1,387 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class BatchCli {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java MainMenu ALGORITHM GRAPH [options]",
+            "  ALGORITHM            dfs, bfs, dijkstra, bf or fw",
+            "  GRAPH                random:N:P[:MIN:MAX[:SEED]], implicit:grid|torus:R:C[:MIN:MAX[:SEED]]",
+            "                       or a graph file (edge list, .gr, .graph, .metis, .csr)",
+            "  --sources LIST       comma separated start vertices, all, or random:K[:SEED] (default 0; fw ignores it)",
+            "  --repeat R           run all queries R times in this JVM and keep the last results (default 1)",
+            "  --budget MS          stop each query after MS milliseconds and keep its partial result",
+            "  --output FILE        write the results to FILE, or as CSV to standard output with -",
+            "  --format csv|binary  output encoding (default csv for .csv files and -, binary otherwise)",
+            "Without arguments MainMenu starts the interactive visualizer.");
+    // Largest graph fw runs on: its numVertices^2 int matrix is 1 GiB at this size, and it must also fit the heap
+    private static final int MAX_ALL_PAIRS_VERTICES = 16_384;
+
+    private String algorithm;
+    private Graph graph;
+    private int[] sources = {0};
+    private int repeat = 1;
+    private long budgetMillis;
+    private String output;
+    private ResultExporter.Format format;
+
+    /**
+     * BatchCli is MainMenu's command line mode: it runs one algorithm for many sources on one graph and prints
+     * how long the queries took. It only uses GraphAlgorithms, never a visualizer, so no AWT class is
+     * loaded, and all queries share one JVM so that the later ones run JIT-compiled.
+     */
+    private BatchCli() {
+    }
+
+    /**
+     * Runs the command line mode.
+     *
+     * @param args the arguments described in USAGE
+     * @return the exit status: 0 on success, 1 for bad arguments or an unreadable graph file, 2 if a negative
+     *         cycle was found, 3 if a query ran out of its budget
+     */
+    public static int run(String[] args) throws IOException {
+        BatchCli cli = new BatchCli();
+        long start = System.nanoTime();
+        try {
+            cli.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 1;
+        } catch (IOException e) {
+            System.err.println("Cannot read the graph: " + e.getMessage());
+            System.err.println(USAGE);
+            return 1;
+        }
+        long loaded = System.nanoTime();
+        PrintStream summary = "-".equals(cli.output) ? System.err : System.out;
+        summary.printf("Graph: %,d vertices, %,d edges, ready in %.1f ms%n", cli.graph.getNumVertices(),
+                cli.graph.getNumEdges(), (loaded - start) / 1e6);
+        return cli.runQueries(summary);
+    }
+
+    private void parse(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Missing the algorithm or the graph");
+        }
+        algorithm = args[0].toLowerCase();
+        if (!Arrays.asList("dfs", "bfs", "dijkstra", "bf", "fw").contains(algorithm)) {
+            throw new IllegalArgumentException("Unknown algorithm: " + args[0]);
+        }
+        String sourceList = "0";
+        for (int i = 2; i < args.length; i++) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing the value of " + args[i]);
+            }
+            switch (args[i]) {
+                case "--sources":
+                    sourceList = args[++i];
+                    break;
+                case "--repeat":
+                    repeat = Integer.parseInt(args[++i]);
+                    if (repeat < 1) {
+                        throw new IllegalArgumentException("--repeat must be at least 1");
+                    }
+                    break;
+                case "--budget":
+                    budgetMillis = Long.parseLong(args[++i]);
+                    if (budgetMillis < 1) {
+                        throw new IllegalArgumentException("--budget must be at least 1");
+                    }
+                    break;
+                case "--output":
+                    output = args[++i];
+                    break;
+                case "--format":
+                    format = ResultExporter.Format.valueOf(args[++i].toUpperCase());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        graph = loadGraph(args[1]);
+        if (algorithm.equals("fw")) {
+            checkMatrixSize(graph.getNumVertices());
+        }
+        sources = parseSources(sourceList, graph.getNumVertices());
+        if (format == null) {
+            format = output != null && !output.equals("-") && !output.toLowerCase().endsWith(".csv")
+                    ? ResultExporter.Format.BINARY : ResultExporter.Format.CSV;
+        }
+    }
+
+    /**
+     * Generates a random graph with the weights MainMenu uses for the algorithm, unless MIN and MAX are given,
+     * or loads a graph file.
+     */
+    private Graph loadGraph(String spec) throws IOException {
+        if (algorithm.equals("dijkstra")) {
+            return loadGraph(spec, 1, 10);
+        } else if (algorithm.equals("bf") || algorithm.equals("fw")) {
+            return loadGraph(spec, -5, 10);
+        }
+        return loadGraph(spec, -10, 10);
+    }
+
+    /**
+     * Loads a graph file, generates a graph for a random:N:P[:MIN:MAX[:SEED]] spec, or creates an ImplicitGraph
+     * for an implicit:grid:R:C[:MIN:MAX[:SEED]] or implicit:torus:R:C[:MIN:MAX[:SEED]] spec. An implicit graph
+     * computes its edges on demand and is used as it is, without being copied.
+     *
+     * @param spec the file name or the graph spec
+     * @param defaultMinWeight the minimum weight when the spec has none
+     * @param defaultMaxWeight the maximum weight (exclusive) when the spec has none
+     * @return the graph
+     * @throws IllegalArgumentException if the spec is malformed
+     * @throws IOException if the file cannot be read
+     */
+    static Graph loadGraph(String spec, int defaultMinWeight, int defaultMaxWeight) throws IOException {
+        if (spec.startsWith("implicit:")) {
+            return implicitGraph(spec, defaultMinWeight, defaultMaxWeight);
+        }
+        if (!spec.startsWith("random:")) {
+            return GraphFileLoader.load(Paths.get(spec));
+        }
+        String[] parts = spec.split(":");
+        if (parts.length != 3 && parts.length != 5 && parts.length != 6) {
+            throw new IllegalArgumentException("Expected random:N:P[:MIN:MAX[:SEED]], got " + spec);
+        }
+        int numVertices = Integer.parseInt(parts[1]);
+        double edgeProbability = Double.parseDouble(parts[2]);
+        int minWeight = parts.length >= 5 ? Integer.parseInt(parts[3]) : defaultMinWeight;
+        int maxWeight = parts.length >= 5 ? Integer.parseInt(parts[4]) : defaultMaxWeight;
+        Random random = parts.length == 6 ? new Random(Long.parseLong(parts[5])) : new Random();
+        return GraphGenerator.generateRandomGraph(numVertices, edgeProbability, minWeight, maxWeight, random);
+    }
+
+    // The edges u -> v and v -> u of an implicit graph share their weight, so a negative weight is a negative
+    // cycle; without MIN and MAX its weights start at 1
+    private static Graph implicitGraph(String spec, int defaultMinWeight, int defaultMaxWeight) {
+        String[] parts = spec.split(":");
+        if (parts.length != 4 && parts.length != 6 && parts.length != 7) {
+            throw new IllegalArgumentException("Expected implicit:grid|torus:R:C[:MIN:MAX[:SEED]], got " + spec);
+        }
+        int rows = Integer.parseInt(parts[2]);
+        int cols = Integer.parseInt(parts[3]);
+        int minWeight = parts.length >= 6 ? Integer.parseInt(parts[4]) : Math.max(1, defaultMinWeight);
+        int maxWeight = parts.length >= 6 ? Integer.parseInt(parts[5]) : defaultMaxWeight;
+        long seed = parts.length == 7 ? Long.parseLong(parts[6]) : new Random().nextLong();
+        switch (parts[1]) {
+            case "grid":
+                return ImplicitGraph.grid(rows, cols, seed, minWeight, maxWeight);
+            case "torus":
+                return ImplicitGraph.torus(rows, cols, seed, minWeight, maxWeight);
+            default:
+                throw new IllegalArgumentException("Unknown implicit graph: " + parts[1]);
+        }
+    }
+
+    /**
+     * Rejects a graph whose all-pairs matrix exceeds MAX_ALL_PAIRS_VERTICES or the heap, before it is allocated.
+     */
+    private static void checkMatrixSize(int numVertices) {
+        if (numVertices > MAX_ALL_PAIRS_VERTICES) {
+            throw new IllegalArgumentException("fw is limited to " + MAX_ALL_PAIRS_VERTICES
+                    + " vertices, the graph has " + numVertices);
+        }
+        long matrixBytes = 4L * numVertices * numVertices;
+        long maxHeap = Runtime.getRuntime().maxMemory();
+        if (matrixBytes > maxHeap / 2) {
+            throw new IllegalArgumentException(String.format("fw needs %,d MiB for the distance matrix of %,d "
+                    + "vertices, more than half the %,d MiB heap; raise it with -Xmx", matrixBytes >> 20,
+                    numVertices, maxHeap >> 20));
+        }
+    }
+
+    private static int[] parseSources(String list, int numVertices) {
+        int[] sources;
+        if (list.equals("all")) {
+            sources = new int[numVertices];
+            Arrays.setAll(sources, i -> i);
+        } else if (list.startsWith("random:")) {
+            String[] parts = list.split(":", -1);
+            if ((parts.length != 2 && parts.length != 3) || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Expected random:K[:SEED], got " + list);
+            }
+            int count = Integer.parseInt(parts[1]);
+            if (count < 1) {
+                throw new IllegalArgumentException("random:K needs at least 1 start vertex, got " + count);
+            }
+            Random random = parts.length == 3 ? new Random(Long.parseLong(parts[2])) : new Random();
+            sources = random.ints(count, 0, numVertices).toArray();
+        } else {
+            sources = Arrays.stream(list.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        }
+        if (sources.length == 0) {
+            throw new IllegalArgumentException("No start vertices in " + list);
+        }
+        for (int source : sources) {
+            if (source < 0 || source >= numVertices) {
+                throw new IllegalArgumentException("Invalid start vertex: " + source);
+            }
+        }
+        return sources;
+    }
+
+    private int runQueries(PrintStream summary) throws IOException {
+        int numVertices = graph.getNumVertices();
+        boolean allPairs = algorithm.equals("fw");
+        int queriesPerPass = allPairs ? 1 : sources.length;
+        long[] nanos = new long[queriesPerPass * repeat];
+        int negativeCycles = 0;
+        int stopped = 0;
+        long[] counts = new long[AlgorithmCounters.Counter.values().length];
+
+        // The results of every source are kept only when they are written out
+        GraphAlgorithms.Workspace workspace = new GraphAlgorithms.Workspace(numVertices);
+        int[][] results = new int[allPairs ? numVertices : output != null ? sources.length : 1][];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new int[numVertices];
+        }
+
+        for (int pass = 0; pass < repeat; pass++) {
+            negativeCycles = 0;
+            stopped = 0;
+            // One run per pass, so its MBean shows how far a long batch has come
+            AlgorithmCounters counters = AlgorithmCounters.start(algorithmName(), graph);
+            for (int query = 0; query < queriesPerPass; query++) {
+                int[] result = results[Math.min(query, results.length - 1)];
+                long start = System.nanoTime();
+                RunControl control = budgetMillis > 0 ? RunControl.withTimeout(budgetMillis, TimeUnit.MILLISECONDS) : null;
+                boolean complete = true;
+                switch (algorithm) {
+                    case "dfs":
+                        GraphAlgorithms.dfs(graph, sources[query], result, workspace, control, counters);
+                        break;
+                    case "bfs":
+                        GraphAlgorithms.bfs(graph, sources[query], -1, result, workspace, control, counters);
+                        break;
+                    case "dijkstra":
+                        GraphAlgorithms.dijkstra(graph, sources[query], -1, result, workspace, control, counters);
+                        break;
+                    case "bf":
+                        complete = GraphAlgorithms.bellmanFord(graph, sources[query], result, control, counters);
+                        break;
+                    default:
+                        complete = GraphAlgorithms.floydWarshall(graph, results, control, counters);
+                        break;
+                }
+                nanos[pass * queriesPerPass + query] = System.nanoTime() - start;
+                if (!complete) {
+                    negativeCycles++;
+                }
+                if (control != null && control.isStopped()) {
+                    stopped++;
+                }
+            }
+            counters.finish();
+            counters.snapshot(counts);
+        }
+
+        printTimings(summary, nanos, queriesPerPass);
+        printCounts(summary, counts);
+        if (negativeCycles > 0) {
+            summary.printf("Negative cycle found by %d of %d queries; their distances are not final%n",
+                    negativeCycles, queriesPerPass);
+        }
+        if (stopped > 0) {
+            summary.printf("%d of %d queries ran out of their %d ms budget; their results are partial%n",
+                    stopped, queriesPerPass, budgetMillis);
+        }
+        if (output != null) {
+            ResultExporter.Table table = allPairs ? ResultExporter.matrix(results) : bySource(results);
+            if (output.equals("-")) {
+                WritableByteChannel channel = Channels.newChannel(System.out);
+                ResultExporter.export(table, channel, format, null);
+                System.out.flush();
+            } else {
+                Path file = Paths.get(output);
+                ResultExporter.export(table, file, format);
+                summary.println("Results written to " + file);
+            }
+        }
+        return negativeCycles > 0 ? 2 : stopped > 0 ? 3 : 0;
+    }
+
+    /**
+     * One row per vertex and one column per source, named after the source.
+     */
+    private ResultExporter.Table bySource(int[][] results) {
+        return new ResultExporter.Table() {
+            @Override
+            public int getNumRows() {
+                return graph.getNumVertices();
+            }
+
+            @Override
+            public int getNumColumns() {
+                return sources.length;
+            }
+
+            @Override
+            public String getColumnName(int column) {
+                return Integer.toString(sources[column]);
+            }
+
+            @Override
+            public int getValue(int row, int column) {
+                return results[column][row];
+            }
+        };
+    }
+
+    private void printTimings(PrintStream summary, long[] nanos, int queriesPerPass) {
+        long total = 0;
+        for (long time : nanos) {
+            total += time;
+        }
+        summary.printf("%s: %,d queries (%d x %,d) in %.1f ms, %,.0f queries/s%n", algorithm, nanos.length, repeat,
+                queriesPerPass, total / 1e6, nanos.length / (total / 1e9));
+        summary.printf("  first query %.3f ms%n", nanos[0] / 1e6);
+
+        // The first pass includes JIT warmup, so with more passes the percentiles are of the last one
+        long[] sorted = Arrays.copyOfRange(nanos, nanos.length - queriesPerPass, nanos.length);
+        Arrays.sort(sorted);
+        summary.printf("  %s: min %.3f ms, median %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                repeat > 1 ? "last pass" : "all queries", sorted[0] / 1e6, percentile(sorted, 0.5) / 1e6,
+                percentile(sorted, 0.9) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private void printCounts(PrintStream summary, long[] counts) {
+        summary.printf("  %s: %,d edges scanned, %,d vertices visited, %,d relaxations (%,d improved), "
+                        + "%,d heap pops, %,d rounds%n", repeat > 1 ? "last pass" : "all queries",
+                counts[AlgorithmCounters.Counter.EDGES_SCANNED.ordinal()],
+                counts[AlgorithmCounters.Counter.VERTICES_VISITED.ordinal()],
+                counts[AlgorithmCounters.Counter.RELAXATIONS_ATTEMPTED.ordinal()],
+                counts[AlgorithmCounters.Counter.RELAXATIONS_SUCCEEDED.ordinal()],
+                counts[AlgorithmCounters.Counter.HEAP_POPS.ordinal()],
+                counts[AlgorithmCounters.Counter.ROUNDS.ordinal()]);
+    }
+
+    // The names the visualizers give their runs
+    private String algorithmName() {
+        switch (algorithm) {
+            case "dfs":
+                return "DFS";
+            case "bfs":
+                return "BFS";
+            case "dijkstra":
+                return "Dijkstra";
+            case "bf":
+                return "Bellman-Ford";
+            default:
+                return "Floyd-Warshall";
+        }
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray parents;
+
+    /**
+     * ConcurrentUnionFind is a disjoint-set forest over the vertices 0 to numElements - 1 that any number of
+     * threads can query and merge at once without locks. Roots are linked with a compare-and-set on the
+     * parent array, always the higher numbered root under the lower one so that no cycle can form, and finds
+     * halve the paths they walk with compare-and-sets that may fail harmlessly when another thread got there
+     * first.
+     *
+     * @param numElements the number of elements, each in its own set at first
+     */
+    public ConcurrentUnionFind(int numElements) {
+        parents = new AtomicIntegerArray(numElements);
+        for (int i = 0; i < numElements; i++) {
+            parents.set(i, i);
+        }
+    }
+
+    /**
+     * Returns the root of the set holding the element. Any thread; with concurrent unions the root may have
+     * been linked under another one by the time this returns.
+     */
+    public int find(int element) {
+        int parent = parents.get(element);
+        while (parent != element) {
+            int grandparent = parents.get(parent);
+            if (grandparent != parent) {
+                parents.compareAndSet(element, parent, grandparent);
+            }
+            element = parent;
+            parent = grandparent;
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets of the two elements. Any thread.
+     *
+     * @return true if this call merged them, false if they were already in one set
+     */
+    public boolean union(int first, int second) {
+        while (true) {
+            int root1 = find(first);
+            int root2 = find(second);
+            if (root1 == root2) {
+                return false;
+            }
+            int child = Math.max(root1, root2);
+            // Fails if child stopped being a root in the meantime, in which case the roots are found again
+            if (parents.compareAndSet(child, child, Math.min(root1, root2))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the two elements are in the same set. Only reliable while no union runs concurrently.
+     */
+    public boolean connected(int first, int second) {
+        return find(first) == find(second);
+    }
+
+    public int size() {
+        return parents.length();
+    }
+}
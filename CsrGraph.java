@@ -0,0 +1,83 @@
+public class CsrGraph extends Graph {
+    // The edges of vertex v are targets[offsets[v]] .. targets[offsets[v + 1] - 1], weights alike
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    /**
+     * CsrGraph is an immutable Graph in compressed sparse row form: three flat arrays instead of one pair
+     * of arrays per vertex, which is how the file loaders build large graphs without per-vertex objects.
+     *
+     * @param numVertices the number of vertices in the graph
+     * @param offsets numVertices + 1 increasing edge offsets, starting at 0
+     * @param targets the destination of every edge, grouped by source vertex
+     * @param weights the weight of every edge, in the same order as targets
+     */
+    public CsrGraph(int numVertices, int[] offsets, int[] targets, int[] weights) {
+        super(numVertices, false);
+        if (offsets.length != numVertices + 1 || offsets[0] != 0 || offsets[numVertices] != targets.length
+                || weights.length != targets.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Copies any graph into CSR form, e.g. to share a generated Graph between threads as an immutable
+     * snapshot. A CsrGraph is returned as it is.
+     *
+     * @param graph the graph to copy
+     * @return an immutable graph with the same edges in the same order
+     * @throws IllegalArgumentException if the graph has more than Integer.MAX_VALUE edges
+     */
+    public static CsrGraph copyOf(Graph graph) {
+        if (graph instanceof CsrGraph) {
+            return (CsrGraph) graph;
+        }
+        long numEdges = graph.getNumEdges();
+        if (numEdges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("CSR graphs hold at most " + Integer.MAX_VALUE + " edges");
+        }
+        int numVertices = graph.getNumVertices();
+        int[] offsets = new int[numVertices + 1];
+        int[] targets = new int[(int) numEdges];
+        int[] weights = new int[(int) numEdges];
+        int position = 0;
+        for (int v = 0; v < numVertices; v++) {
+            for (int edge = 0; edge < graph.getOutDegree(v); edge++) {
+                targets[position] = graph.getNeighbor(v, edge);
+                weights[position] = graph.getWeight(v, edge);
+                position++;
+            }
+            offsets[v + 1] = position;
+        }
+        return new CsrGraph(numVertices, offsets, targets, weights);
+    }
+
+    @Override
+    public void addEdge(int src, int dest, int weight) {
+        throw new UnsupportedOperationException("Edges of a CSR graph cannot be modified");
+    }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        return targets[offsets[vertex] + index];
+    }
+
+    @Override
+    public int getWeight(int vertex, int index) {
+        return weights[offsets[vertex] + index];
+    }
+
+    @Override
+    public long getNumEdges() {
+        return targets.length;
+    }
+}
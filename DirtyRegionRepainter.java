@@ -0,0 +1,49 @@
+import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import javax.swing.*;
+
+public class DirtyRegionRepainter {
+    private final JComponent component;
+    private final VertexStateBuffer stateBuffer;
+    private final IntFunction<Rectangle> vertexBounds;
+    private final IntFunction<Rectangle> tableRowBounds;
+    private final AtomicBoolean flushPending;
+
+    /**
+     * DirtyRegionRepainter turns published vertex changes into repaint(Rectangle) calls covering only
+     * the changed vertices and their table rows. Requests made between two flushes are coalesced, so
+     * many algorithm steps published within one frame cost a single pass on the Event Dispatch Thread.
+     *
+     * @param component the visualizer to repaint
+     * @param stateBuffer the buffer whose changed vertices are repainted
+     * @param vertexBounds maps a vertex to the area its circle and label cover
+     * @param tableRowBounds maps a vertex to the area of its row in the table
+     */
+    public DirtyRegionRepainter(JComponent component, VertexStateBuffer stateBuffer,
+                                IntFunction<Rectangle> vertexBounds, IntFunction<Rectangle> tableRowBounds) {
+        this.component = component;
+        this.stateBuffer = stateBuffer;
+        this.vertexBounds = vertexBounds;
+        this.tableRowBounds = tableRowBounds;
+        flushPending = new AtomicBoolean(false);
+    }
+
+    /**
+     * Schedules a repaint of everything published since the last flush. Safe to call from any thread;
+     * calls made before the pending flush runs are merged into it.
+     */
+    public void repaintDirty() {
+        if (flushPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushPending.set(false);
+        stateBuffer.drainDirty(vertex -> {
+            component.repaint(vertexBounds.apply(vertex));
+            component.repaint(tableRowBounds.apply(vertex));
+        });
+    }
+}
@@ -0,0 +1,68 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+public class EdgeDensityRaster {
+    // Longest side of the raster in pixels, which bounds both its memory and the cost of drawing it
+    private static final int MAX_RESOLUTION = 1024;
+
+    private final BufferedImage image;
+    private final float cellSize;
+
+    /**
+     * EdgeDensityRaster aggregates all edges of a laid out graph into a fixed size image whose darkness
+     * shows how many edges cross each cell. At low zoom it is drawn instead of the individual edges, so the
+     * cost of a frame no longer depends on the number of edges.
+     *
+     * @param graph the graph whose edges are rasterized
+     * @param layout the positions of the vertices
+     */
+    public EdgeDensityRaster(Graph graph, VertexLayout layout) {
+        cellSize = Math.max(1, Math.max(layout.getWidth(), layout.getHeight()) / MAX_RESOLUTION);
+        int width = Math.max(1, (int) Math.ceil(layout.getWidth() / cellSize));
+        int height = Math.max(1, (int) Math.ceil(layout.getHeight() / cellSize));
+        int[] counts = new int[width * height];
+
+        // Walk every edge one cell at a time and count the cells it passes through
+        int maxCount = 0;
+        for (int v = 0; v < graph.getNumVertices(); v++) {
+            float x1 = layout.getX(v) / cellSize;
+            float y1 = layout.getY(v) / cellSize;
+            for (int edge = 0; edge < graph.getOutDegree(v); edge++) {
+                int dest = graph.getNeighbor(v, edge);
+                float x2 = layout.getX(dest) / cellSize;
+                float y2 = layout.getY(dest) / cellSize;
+                int steps = (int) Math.max(Math.abs(x2 - x1), Math.abs(y2 - y1)) + 1;
+                float dx = (x2 - x1) / steps;
+                float dy = (y2 - y1) / steps;
+                for (int step = 0; step <= steps; step++) {
+                    int cx = Math.min(width - 1, Math.max(0, (int) (x1 + dx * step)));
+                    int cy = Math.min(height - 1, Math.max(0, (int) (y1 + dy * step)));
+                    int count = ++counts[cy * width + cx];
+                    maxCount = Math.max(maxCount, count);
+                }
+            }
+        }
+
+        // Map counts to alpha on a log scale so sparse areas stay visible next to dense ones
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        double logMax = Math.log1p(maxCount);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                int alpha = (int) (40 + 215 * Math.log1p(counts[i]) / logMax);
+                pixels[i] = alpha << 24;
+            }
+        }
+    }
+
+    /**
+     * Returns the density image. One pixel covers getCellSize() world units in each direction.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+}
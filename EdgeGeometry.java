@@ -0,0 +1,87 @@
+import java.awt.geom.Path2D;
+
+public class EdgeGeometry {
+    // Arrowheads sit at the middle of the edge: two barbs of this length, this far off the edge direction
+    private static final double ARROW_LENGTH = 20;
+    private static final double ARROW_ANGLE = Math.PI / 6;
+
+    private final Graph graph;
+    private final VertexLayout layout;
+    // Edge id = edgeOffsets[source] + edgeIndex
+    private final int[] edgeOffsets;
+    // Per edge: the arrowhead tip (the midpoint of the edge) followed by its two barbs
+    private final float[] headX;
+    private final float[] headY;
+
+    /**
+     * EdgeGeometry computes the shape of every edge of a laid out graph once: the line between the vertex
+     * centers and the arrowhead at its midpoint. The results are kept in flat float arrays and appended to
+     * reusable paths while drawing, so a frame involves no trigonometry and no per-edge objects.
+     * A new instance is needed whenever the layout changes.
+     *
+     * @param graph the graph whose edges are drawn
+     * @param layout the positions of the vertices
+     */
+    public EdgeGeometry(Graph graph, VertexLayout layout) {
+        this.graph = graph;
+        this.layout = layout;
+        int numVertices = graph.getNumVertices();
+        edgeOffsets = new int[numVertices + 1];
+        for (int v = 0; v < numVertices; v++) {
+            edgeOffsets[v + 1] = Math.addExact(edgeOffsets[v], graph.getOutDegree(v));
+        }
+        int numEdges = edgeOffsets[numVertices];
+        headX = new float[Math.multiplyExact(numEdges, 3)];
+        headY = new float[headX.length];
+        for (int v = 0; v < numVertices; v++) {
+            float x1 = layout.getX(v);
+            float y1 = layout.getY(v);
+            for (int edge = 0; edge < graph.getOutDegree(v); edge++) {
+                int dest = graph.getNeighbor(v, edge);
+                float x2 = layout.getX(dest);
+                float y2 = layout.getY(dest);
+                double theta = Math.atan2(y2 - y1, x2 - x1);
+                float midX = (x1 + x2) / 2;
+                float midY = (y1 + y2) / 2;
+                int point = (edgeOffsets[v] + edge) * 3;
+                headX[point] = midX;
+                headY[point] = midY;
+                headX[point + 1] = (float) (midX - ARROW_LENGTH * Math.cos(theta - ARROW_ANGLE));
+                headY[point + 1] = (float) (midY - ARROW_LENGTH * Math.sin(theta - ARROW_ANGLE));
+                headX[point + 2] = (float) (midX - ARROW_LENGTH * Math.cos(theta + ARROW_ANGLE));
+                headY[point + 2] = (float) (midY - ARROW_LENGTH * Math.sin(theta + ARROW_ANGLE));
+            }
+        }
+    }
+
+    /**
+     * Appends the line of an edge, from the center of its source to the center of its destination.
+     */
+    public void appendLine(Path2D.Float path, int source, int edgeIndex) {
+        int dest = graph.getNeighbor(source, edgeIndex);
+        path.moveTo(layout.getX(source), layout.getY(source));
+        path.lineTo(layout.getX(dest), layout.getY(dest));
+    }
+
+    /**
+     * Appends the closed arrowhead triangle of an edge.
+     */
+    public void appendArrowHead(Path2D.Float path, int source, int edgeIndex) {
+        int point = (edgeOffsets[source] + edgeIndex) * 3;
+        path.moveTo(headX[point], headY[point]);
+        path.lineTo(headX[point + 1], headY[point + 1]);
+        path.lineTo(headX[point + 2], headY[point + 2]);
+        path.closePath();
+    }
+
+    /**
+     * Returns the x-coordinate of the middle of an edge, where its arrowhead and weight label are drawn.
+     */
+    public float getMidX(int source, int edgeIndex) {
+        return headX[(edgeOffsets[source] + edgeIndex) * 3];
+    }
+
+    public float getMidY(int source, int edgeIndex) {
+        return headY[(edgeOffsets[source] + edgeIndex) * 3];
+    }
+}
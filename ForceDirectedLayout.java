@@ -0,0 +1,371 @@
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import javax.swing.*;
+
+public class ForceDirectedLayout {
+    // Barnes-Hut opening criterion: a cell is treated as one body when size / distance is below this
+    private static final double THETA = 0.9;
+    private static final int MAX_DEPTH = 48;
+    private static final int MAX_ITERATIONS = 300;
+    private static final double COOLING = 0.97;
+    private static final double GRAVITY = 0.5;
+    // Refinement updates handed to the UI at most this often
+    private static final long UPDATE_MILLIS = 100;
+    // Above this size the grid layout is kept, since each iteration would take too long to watch
+    private static final int MAX_VERTICES = 1_000_000;
+
+    // Finished layouts by graph (compared by identity), so reruns of any algorithm on a graph reuse them
+    private static final Map<Graph, VertexLayout> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Graph graph;
+    private final int numVertices;
+    private final double idealLength;
+    private final double vertexRadius;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] forceX;
+    private final double[] forceY;
+    private double temperature;
+    private int iteration;
+
+    // Quadtree rebuilt every iteration, stored in flat arrays; the children of a node are the four
+    // consecutive nodes starting at firstChild, and sums are turned into centers of mass after the build
+    private double[] nodeMinX;
+    private double[] nodeMinY;
+    private double[] nodeSize;
+    private double[] nodeX;
+    private double[] nodeY;
+    private int[] nodeMass;
+    private int[] nodeFirstChild;
+    private int[] nodeBody;
+    private int numNodes;
+
+    /**
+     * ForceDirectedLayout places vertices so that edges pull their endpoints together while all vertices
+     * push each other apart (Fruchterman-Reingold). Repulsion is approximated with a Barnes-Hut quadtree in
+     * O(n log n) per iteration and computed for all vertices in parallel. Iterations are run one at a time,
+     * so the layout can be refined in the background and shown as it improves.
+     *
+     * @param graph the graph to lay out; edges are treated as undirected springs
+     * @param initial the starting positions, e.g. the grid layout
+     * @param idealLength the preferred distance between neighboring vertices
+     * @param vertexRadius the radius of a vertex circle, used as margin around the drawing
+     */
+    public ForceDirectedLayout(Graph graph, VertexLayout initial, double idealLength, double vertexRadius) {
+        this.graph = graph;
+        this.numVertices = graph.getNumVertices();
+        this.idealLength = idealLength;
+        this.vertexRadius = vertexRadius;
+        xs = new double[numVertices];
+        ys = new double[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            xs[v] = initial.getX(v);
+            ys[v] = initial.getY(v);
+        }
+        forceX = new double[numVertices];
+        forceY = new double[numVertices];
+        temperature = Math.max(initial.getWidth(), initial.getHeight()) / 10;
+        iteration = 0;
+        ensureNodeCapacity(Math.max(16, numVertices * 2));
+    }
+
+    /**
+     * Returns the finished layout of a graph computed earlier, or null if there is none.
+     */
+    public static VertexLayout getCached(Graph graph) {
+        return CACHE.get(graph);
+    }
+
+    /**
+     * Computes the finished layout of a graph on the calling thread and caches it, or returns the cached
+     * layout if there is one. Very large graphs keep the initial layout.
+     *
+     * @param graph the graph to lay out
+     * @param initial the starting positions
+     * @param idealLength the preferred distance between neighboring vertices
+     * @param vertexRadius the radius of a vertex circle
+     * @return the finished layout
+     */
+    public static VertexLayout computeLayout(Graph graph, VertexLayout initial, double idealLength, double vertexRadius) {
+        VertexLayout cached = CACHE.get(graph);
+        if (cached != null) {
+            return cached;
+        }
+        if (graph.getNumVertices() < 2 || graph.getNumVertices() > MAX_VERTICES) {
+            return initial;
+        }
+        ForceDirectedLayout layout = new ForceDirectedLayout(graph, initial, idealLength, vertexRadius);
+        while (layout.iterate()) {
+            // Run to completion
+        }
+        VertexLayout result = layout.toVertexLayout();
+        CACHE.put(graph, result);
+        return result;
+    }
+
+    /**
+     * Refines the layout of a graph on a background thread, starting from the given layout, and passes
+     * intermediate and final layouts to the listener on the Event Dispatch Thread. The final layout is
+     * cached for the graph. Very large graphs keep their initial layout.
+     *
+     * @param graph the graph to lay out
+     * @param initial the layout currently shown
+     * @param idealLength the preferred distance between neighboring vertices
+     * @param vertexRadius the radius of a vertex circle
+     * @param listener receives each improved layout
+     */
+    public static void refineInBackground(Graph graph, VertexLayout initial, double idealLength, double vertexRadius,
+                                          Consumer<VertexLayout> listener) {
+        if (graph.getNumVertices() < 2 || graph.getNumVertices() > MAX_VERTICES) {
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            ForceDirectedLayout layout = new ForceDirectedLayout(graph, initial, idealLength, vertexRadius);
+            long lastUpdate = System.nanoTime();
+            while (layout.iterate()) {
+                if (System.nanoTime() - lastUpdate > UPDATE_MILLIS * 1_000_000) {
+                    VertexLayout update = layout.toVertexLayout();
+                    SwingUtilities.invokeLater(() -> listener.accept(update));
+                    lastUpdate = System.nanoTime();
+                }
+            }
+            VertexLayout result = layout.toVertexLayout();
+            CACHE.put(graph, result);
+            SwingUtilities.invokeLater(() -> listener.accept(result));
+        }, "Layout refinement");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    /**
+     * Runs one iteration: parallel repulsion through the quadtree, attraction along the edges, and a
+     * move of every vertex limited by the current temperature.
+     *
+     * @return false once the layout has cooled down and further iterations would not change it
+     */
+    public boolean iterate() {
+        if (iteration >= MAX_ITERATIONS || temperature < idealLength * 0.01) {
+            return false;
+        }
+        buildQuadtree();
+
+        // Each vertex only writes its own force entry, so the repulsion needs no synchronization
+        IntStream.range(0, numVertices).parallel().forEach(v -> {
+            forceX[v] = 0;
+            forceY[v] = 0;
+            accumulateRepulsion(0, v);
+        });
+
+        // Springs along the edges, plus a weak pull to the center that keeps components together
+        double centerX = nodeX[0];
+        double centerY = nodeY[0];
+        for (int u = 0; u < numVertices; u++) {
+            for (int edge = 0; edge < graph.getOutDegree(u); edge++) {
+                int v = graph.getNeighbor(u, edge);
+                double dx = xs[u] - xs[v];
+                double dy = ys[u] - ys[v];
+                double factor = Math.sqrt(dx * dx + dy * dy) / idealLength;
+                forceX[u] -= dx * factor;
+                forceY[u] -= dy * factor;
+                forceX[v] += dx * factor;
+                forceY[v] += dy * factor;
+            }
+            forceX[u] -= (xs[u] - centerX) * GRAVITY;
+            forceY[u] -= (ys[u] - centerY) * GRAVITY;
+        }
+
+        double limit = temperature;
+        IntStream.range(0, numVertices).parallel().forEach(v -> {
+            double length = Math.sqrt(forceX[v] * forceX[v] + forceY[v] * forceY[v]);
+            if (length > 0) {
+                double move = Math.min(length, limit) / length;
+                xs[v] += forceX[v] * move;
+                ys[v] += forceY[v] * move;
+            }
+        });
+        temperature *= COOLING;
+        iteration++;
+        return true;
+    }
+
+    /**
+     * Returns the current positions, shifted so the drawing starts at the vertex radius like the grid layout.
+     */
+    public VertexLayout toVertexLayout() {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int v = 0; v < numVertices; v++) {
+            minX = Math.min(minX, xs[v]);
+            minY = Math.min(minY, ys[v]);
+            maxX = Math.max(maxX, xs[v]);
+            maxY = Math.max(maxY, ys[v]);
+        }
+        float[] layoutX = new float[numVertices];
+        float[] layoutY = new float[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            layoutX[v] = (float) (xs[v] - minX + vertexRadius);
+            layoutY[v] = (float) (ys[v] - minY + vertexRadius);
+        }
+        return new VertexLayout(layoutX, layoutY, (float) (maxX - minX + 2 * vertexRadius),
+                (float) (maxY - minY + 2 * vertexRadius));
+    }
+
+    private void accumulateRepulsion(int node, int v) {
+        int mass = nodeMass[node];
+        if (mass == 0 || (nodeBody[node] == v && mass == 1)) {
+            return;
+        }
+        double dx = xs[v] - nodeX[node];
+        double dy = ys[v] - nodeY[node];
+        double distanceSquared = dx * dx + dy * dy;
+        boolean leaf = nodeFirstChild[node] < 0;
+        if (leaf || nodeSize[node] * nodeSize[node] < THETA * THETA * distanceSquared) {
+            if (distanceSquared < 1e-6) {
+                // Coincident vertices: push apart in a direction that depends on the vertex only
+                dx = (v % 7) - 3 + 0.5;
+                dy = (v % 5) - 2 + 0.5;
+                distanceSquared = dx * dx + dy * dy;
+            }
+            // Repulsion k^2 / d along the unit vector, for every body in the cell
+            double factor = idealLength * idealLength * mass / distanceSquared;
+            forceX[v] += dx * factor;
+            forceY[v] += dy * factor;
+            return;
+        }
+        int first = nodeFirstChild[node];
+        for (int child = first; child < first + 4; child++) {
+            accumulateRepulsion(child, v);
+        }
+    }
+
+    private void buildQuadtree() {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int v = 0; v < numVertices; v++) {
+            minX = Math.min(minX, xs[v]);
+            minY = Math.min(minY, ys[v]);
+            maxX = Math.max(maxX, xs[v]);
+            maxY = Math.max(maxY, ys[v]);
+        }
+        numNodes = 0;
+        newNode(minX, minY, Math.max(1, Math.max(maxX - minX, maxY - minY)) * 1.0001);
+        for (int v = 0; v < numVertices; v++) {
+            insert(v);
+        }
+        for (int node = 0; node < numNodes; node++) {
+            if (nodeMass[node] > 0) {
+                nodeX[node] /= nodeMass[node];
+                nodeY[node] /= nodeMass[node];
+            }
+        }
+    }
+
+    private void insert(int v) {
+        double x = xs[v];
+        double y = ys[v];
+        int node = 0;
+        for (int depth = 0; ; depth++) {
+            if (nodeFirstChild[node] < 0) {
+                if (nodeMass[node] == 0 || depth >= MAX_DEPTH) {
+                    if (nodeMass[node] == 0) {
+                        nodeBody[node] = v;
+                    }
+                    addBody(node, x, y);
+                    return;
+                }
+                subdivide(node);
+            }
+            addBody(node, x, y);
+            node = nodeFirstChild[node] + quadrant(node, x, y);
+        }
+    }
+
+    private void subdivide(int node) {
+        double half = nodeSize[node] / 2;
+        int first = numNodes;
+        newNode(nodeMinX[node], nodeMinY[node], half);
+        newNode(nodeMinX[node] + half, nodeMinY[node], half);
+        newNode(nodeMinX[node], nodeMinY[node] + half, half);
+        newNode(nodeMinX[node] + half, nodeMinY[node] + half, half);
+        nodeFirstChild[node] = first;
+
+        // Move the single body of the former leaf down; the node's own sums already include it
+        int body = nodeBody[node];
+        int child = first + quadrant(node, xs[body], ys[body]);
+        nodeBody[child] = body;
+        addBody(child, xs[body], ys[body]);
+        nodeBody[node] = -1;
+    }
+
+    private int quadrant(int node, double x, double y) {
+        double half = nodeSize[node] / 2;
+        int quadrant = 0;
+        if (x >= nodeMinX[node] + half) {
+            quadrant += 1;
+        }
+        if (y >= nodeMinY[node] + half) {
+            quadrant += 2;
+        }
+        return quadrant;
+    }
+
+    private void addBody(int node, double x, double y) {
+        nodeX[node] += x;
+        nodeY[node] += y;
+        nodeMass[node]++;
+    }
+
+    private void newNode(double minX, double minY, double size) {
+        if (numNodes == nodeMass.length) {
+            ensureNodeCapacity(numNodes * 2);
+        }
+        nodeMinX[numNodes] = minX;
+        nodeMinY[numNodes] = minY;
+        nodeSize[numNodes] = size;
+        nodeX[numNodes] = 0;
+        nodeY[numNodes] = 0;
+        nodeMass[numNodes] = 0;
+        nodeFirstChild[numNodes] = -1;
+        nodeBody[numNodes] = -1;
+        numNodes++;
+    }
+
+    private void ensureNodeCapacity(int capacity) {
+        if (nodeMass != null && nodeMass.length >= capacity) {
+            return;
+        }
+        int oldLength = nodeMass == null ? 0 : nodeMass.length;
+        nodeMinX = grow(nodeMinX, oldLength, capacity);
+        nodeMinY = grow(nodeMinY, oldLength, capacity);
+        nodeSize = grow(nodeSize, oldLength, capacity);
+        nodeX = grow(nodeX, oldLength, capacity);
+        nodeY = grow(nodeY, oldLength, capacity);
+        int[] mass = new int[capacity];
+        int[] firstChild = new int[capacity];
+        int[] body = new int[capacity];
+        if (oldLength > 0) {
+            System.arraycopy(nodeMass, 0, mass, 0, oldLength);
+            System.arraycopy(nodeFirstChild, 0, firstChild, 0, oldLength);
+            System.arraycopy(nodeBody, 0, body, 0, oldLength);
+        }
+        nodeMass = mass;
+        nodeFirstChild = firstChild;
+        nodeBody = body;
+    }
+
+    private static double[] grow(double[] array, int oldLength, int capacity) {
+        double[] grown = new double[capacity];
+        if (oldLength > 0) {
+            System.arraycopy(array, 0, grown, 0, oldLength);
+        }
+        return grown;
+    }
+}
@@ -1,9 +1,10 @@
-import java.util.LinkedList;
-import java.util.Random;
+import java.util.Arrays;
 
 public class Graph {
     private int numVertices;
-    private LinkedList<Tuple<Integer, Integer>>[] adjList;
+    private int[][] adjTargets;
+    private int[][] adjWeights;
+    private int[] outDegrees;
     private String[] vertexColors;
 
     /**
@@ -11,14 +12,27 @@ public class Graph {
      * @param numVertices the number of vertices in the graph
      */
     public Graph(int numVertices) {
+        this(numVertices, true);
+    }
+
+    /**
+     * Constructs a new Graph, optionally without any stored adjacency. Subclasses that compute their
+     * neighbors on demand (see ImplicitGraph) pass false so that no per-vertex storage is allocated.
+     * @param numVertices the number of vertices in the graph
+     * @param storeAdjacency whether to allocate the adjacency arrays
+     */
+    protected Graph(int numVertices, boolean storeAdjacency) {
         this.numVertices = numVertices;
-        adjList = new LinkedList[numVertices];
-        vertexColors = new String[numVertices];
+        if (storeAdjacency) {
+            adjTargets = new int[numVertices][];
+            adjWeights = new int[numVertices][];
+            outDegrees = new int[numVertices];
 
-        // Initialize adjacency list and vertex colors
-        for (int i = 0; i < numVertices; i++) {
-            adjList[i] = new LinkedList<>();
-            vertexColors[i] = "WHITE";
+            // Initialize adjacency arrays
+            for (int i = 0; i < numVertices; i++) {
+                adjTargets[i] = new int[0];
+                adjWeights[i] = new int[0];
+            }
         }
     }
 
@@ -28,15 +42,57 @@ public class Graph {
      * @param dest the destination vertex
      */
     public void addEdge(int src, int dest, int weight) {
-        adjList[src].add(new Tuple<>(dest, weight));
+        int degree = outDegrees[src];
+        if (degree == adjTargets[src].length) {
+            // Grow the arrays for this vertex by doubling their capacity
+            int capacity = Math.max(4, degree * 2);
+            adjTargets[src] = Arrays.copyOf(adjTargets[src], capacity);
+            adjWeights[src] = Arrays.copyOf(adjWeights[src], capacity);
+        }
+        adjTargets[src][degree] = dest;
+        adjWeights[src][degree] = weight;
+        outDegrees[src] = degree + 1;
+    }
+
+    /**
+     * Returns the number of edges leaving the given vertex.
+     * @param vertex the source vertex
+     * @return the out-degree of the vertex
+     */
+    public int getOutDegree(int vertex) {
+        return outDegrees[vertex];
     }
 
     /**
-     * Returns the adjacency list of the graph.
-     * @return the adjacency list
+     * Returns the destination of the index-th edge leaving the given vertex.
+     * @param vertex the source vertex
+     * @param index the edge index, from 0 to getOutDegree(vertex) - 1
+     * @return the neighboring vertex
      */
-    public LinkedList<Tuple<Integer, Integer>>[] getAdjList() {
-        return adjList;
+    public int getNeighbor(int vertex, int index) {
+        return adjTargets[vertex][index];
+    }
+
+    /**
+     * Returns the weight of the index-th edge leaving the given vertex.
+     * @param vertex the source vertex
+     * @param index the edge index, from 0 to getOutDegree(vertex) - 1
+     * @return the edge weight
+     */
+    public int getWeight(int vertex, int index) {
+        return adjWeights[vertex][index];
+    }
+
+    /**
+     * Returns the total number of directed edges in the graph.
+     * @return the number of edges
+     */
+    public long getNumEdges() {
+        long numEdges = 0;
+        for (int i = 0; i < numVertices; i++) {
+            numEdges += getOutDegree(i);
+        }
+        return numEdges;
     }
 
     /**
@@ -44,6 +100,10 @@ public class Graph {
      * @return the vertex colors
      */
     public String[] getVertexColors() {
+        if (vertexColors == null) {
+            vertexColors = new String[numVertices];
+            Arrays.fill(vertexColors, "WHITE");
+        }
         return vertexColors;
     }
 
@@ -0,0 +1,583 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class GraphAlgorithms {
+    // The algorithms the visualizers animate, without the drawing: they need no AWT, write into arrays
+    // owned by the caller and can run on any thread. Used for batch runs and queries.
+
+    /**
+     * Distance or discovery number of a vertex the source cannot reach.
+     */
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    // Floyd-Warshall splits the rows of each pivot across threads from this many vertices up
+    private static final int PARALLEL_VERTICES = 512;
+    // DFS and Dijkstra's have no levels or passes, so they check their RunControl every this many vertices
+    private static final int CHECKPOINT_MASK = 1023;
+    // The algorithms count their work in locals and add it to the AlgorithmCounters at the same points where
+    // they check their RunControl, so counting costs nothing in the inner loops and a run stays observable.
+    // Called without counters, they still count for a flight recording that wants their events
+
+    /**
+     * The scratch arrays of the single-source algorithms for graphs of up to numVertices vertices. A
+     * workspace is reused from query to query, so running one allocates nothing; it is not thread safe,
+     * so concurrent queries each need their own.
+     */
+    public static final class Workspace {
+        private final boolean[] visited;
+        private final int[] queue;
+        private final int[] edgeIndex;
+        private final IndexedMinHeap heap;
+
+        public Workspace(int numVertices) {
+            visited = new boolean[numVertices];
+            queue = new int[numVertices];
+            edgeIndex = new int[numVertices];
+            heap = new IndexedMinHeap(numVertices);
+        }
+
+        public int getNumVertices() {
+            return visited.length;
+        }
+    }
+
+    /**
+     * Breadth-first search: the number of edges on a shortest path from the source to every vertex.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param levels receives the hop counts, UNREACHED for vertices the source cannot reach
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     */
+    public static void bfs(Graph graph, int source, int[] levels, Workspace workspace) {
+        bfs(graph, source, -1, levels, workspace);
+    }
+
+    /**
+     * Breadth-first search that stops as soon as the target is discovered. Only the levels of the vertices
+     * discovered before it are set.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param target the vertex whose level is wanted, or -1 to discover every reachable vertex
+     * @param levels receives the hop counts, UNREACHED for vertices not reached
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @return the level of the target, or UNREACHED
+     */
+    public static int bfs(Graph graph, int source, int target, int[] levels, Workspace workspace) {
+        return bfs(graph, source, target, levels, workspace, null);
+    }
+
+    /**
+     * Breadth-first search that stops as soon as the target is discovered, or at the end of a level once the
+     * control is stopped. Only the levels of the vertices discovered before then are set.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param target the vertex whose level is wanted, or -1 to discover every reachable vertex
+     * @param levels receives the hop counts, UNREACHED for vertices not reached
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @param control checked once per level, or null
+     * @return the level of the target, or UNREACHED
+     */
+    public static int bfs(Graph graph, int source, int target, int[] levels, Workspace workspace,
+                          RunControl control) {
+        AlgorithmCounters recorded = AlgorithmCounters.forRecording("BFS", graph);
+        try {
+            return bfs(graph, source, target, levels, workspace, control, recorded);
+        } finally {
+            finishRecording(recorded);
+        }
+    }
+
+    /**
+     * Breadth-first search that stops as soon as the target is discovered, or at the end of a level once the
+     * control is stopped, and counts its work.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param target the vertex whose level is wanted, or -1 to discover every reachable vertex
+     * @param levels receives the hop counts, UNREACHED for vertices not reached
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @param control checked once per level, or null
+     * @param counters receives the edges scanned, the vertices discovered and a round per level, updated once
+     *                 per level; null to count nothing. The caller finishes it.
+     * @return the level of the target, or UNREACHED
+     */
+    public static int bfs(Graph graph, int source, int target, int[] levels, Workspace workspace,
+                          RunControl control, AlgorithmCounters counters) {
+        checkSource(graph, source);
+        int[] queue = workspace.queue;
+        Arrays.fill(levels, 0, graph.getNumVertices(), UNREACHED);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        levels[source] = 0;
+        int level = -1;
+        // Counted since the last update of the counters; every vertex in the queue has been discovered
+        long edgesScanned = 0;
+        int countedTail = 0;
+        while (head < tail && (target < 0 || levels[target] == UNREACHED)) {
+            int vertex = queue[head++];
+            if (levels[vertex] != level) {
+                level = levels[vertex];
+                if (counters != null) {
+                    addCounts(counters, edgesScanned, tail - countedTail, 0, 0);
+                    edgesScanned = 0;
+                    countedTail = tail;
+                }
+                if (stopped(control)) {
+                    break;
+                }
+                if (counters != null) {
+                    counters.startRound();
+                }
+            }
+            int next = level + 1;
+            int degree = graph.getOutDegree(vertex);
+            edgesScanned += degree;
+            for (int edge = 0; edge < degree; edge++) {
+                int neighbor = graph.getNeighbor(vertex, edge);
+                if (levels[neighbor] == UNREACHED) {
+                    levels[neighbor] = next;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        if (counters != null) {
+            addCounts(counters, edgesScanned, tail - countedTail, 0, 0);
+        }
+        return target < 0 ? UNREACHED : levels[target];
+    }
+
+    /**
+     * Depth-first search from the source, iterative so that long paths cannot overflow the stack.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param discovery receives the order in which vertices were discovered, starting at 0 for the source,
+     *                  UNREACHED for vertices the source cannot reach
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     */
+    public static void dfs(Graph graph, int source, int[] discovery, Workspace workspace) {
+        dfs(graph, source, discovery, workspace, null);
+    }
+
+    /**
+     * Depth-first search from the source that ends early once the control is stopped, with the discovery
+     * numbers of the vertices discovered until then.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param discovery receives the order in which vertices were discovered, UNREACHED for the others
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @param control checked every 1024 discovered vertices, or null
+     */
+    public static void dfs(Graph graph, int source, int[] discovery, Workspace workspace, RunControl control) {
+        AlgorithmCounters recorded = AlgorithmCounters.forRecording("DFS", graph);
+        try {
+            dfs(graph, source, discovery, workspace, control, recorded);
+        } finally {
+            finishRecording(recorded);
+        }
+    }
+
+    /**
+     * Depth-first search from the source that ends early once the control is stopped, and counts its work.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param discovery receives the order in which vertices were discovered, UNREACHED for the others
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @param control checked every 1024 discovered vertices, or null
+     * @param counters receives the edges scanned and the vertices discovered, updated every 1024 discovered
+     *                 vertices; null to count nothing. The caller finishes it.
+     */
+    public static void dfs(Graph graph, int source, int[] discovery, Workspace workspace, RunControl control,
+                           AlgorithmCounters counters) {
+        checkSource(graph, source);
+        int[] stack = workspace.queue;
+        int[] edgeIndex = workspace.edgeIndex;
+        Arrays.fill(discovery, 0, graph.getNumVertices(), UNREACHED);
+        int time = 0;
+        int depth = 0;
+        stack[depth++] = source;
+        edgeIndex[source] = 0;
+        discovery[source] = time++;
+        // Counted since the last update of the counters; time is the number of vertices discovered
+        long edgesScanned = 0;
+        int countedTime = 0;
+        while (depth > 0) {
+            int vertex = stack[depth - 1];
+            if (edgeIndex[vertex] == graph.getOutDegree(vertex)) {
+                depth--;
+                continue;
+            }
+            int neighbor = graph.getNeighbor(vertex, edgeIndex[vertex]++);
+            edgesScanned++;
+            if (discovery[neighbor] == UNREACHED) {
+                if ((time & CHECKPOINT_MASK) == 0) {
+                    if (counters != null) {
+                        addCounts(counters, edgesScanned, time - countedTime, 0, 0);
+                        edgesScanned = 0;
+                        countedTime = time;
+                    }
+                    if (stopped(control)) {
+                        break;
+                    }
+                }
+                discovery[neighbor] = time++;
+                edgeIndex[neighbor] = 0;
+                stack[depth++] = neighbor;
+            }
+        }
+        if (counters != null) {
+            addCounts(counters, edgesScanned, time - countedTime, 0, 0);
+        }
+    }
+
+    /**
+     * Dijkstra's algorithm with a primitive indexed heap. A vertex is settled once and not updated again,
+     * so with negative weights the distances are those of the paths it found, not necessarily the shortest.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param distances receives the distances, UNREACHED for vertices the source cannot reach
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     */
+    public static void dijkstra(Graph graph, int source, int[] distances, Workspace workspace) {
+        dijkstra(graph, source, -1, distances, workspace);
+    }
+
+    /**
+     * Dijkstra's algorithm that stops as soon as the target is settled. Only the distances of the vertices
+     * settled before it are final.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param target the vertex whose distance is wanted, or -1 to settle every reachable vertex
+     * @param distances receives the distances, UNREACHED for vertices not reached
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @return the distance of the target, or UNREACHED
+     */
+    public static int dijkstra(Graph graph, int source, int target, int[] distances, Workspace workspace) {
+        return dijkstra(graph, source, target, distances, workspace, null);
+    }
+
+    /**
+     * Dijkstra's algorithm that stops as soon as the target is settled or the control is stopped. Only the
+     * distances of the vertices settled before then are final; the others are upper bounds.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param target the vertex whose distance is wanted, or -1 to settle every reachable vertex
+     * @param distances receives the distances, UNREACHED for vertices not reached
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @param control checked every 1024 settled vertices, or null
+     * @return the distance of the target, or UNREACHED
+     */
+    public static int dijkstra(Graph graph, int source, int target, int[] distances, Workspace workspace,
+                               RunControl control) {
+        AlgorithmCounters recorded = AlgorithmCounters.forRecording("Dijkstra", graph);
+        try {
+            return dijkstra(graph, source, target, distances, workspace, control, recorded);
+        } finally {
+            finishRecording(recorded);
+        }
+    }
+
+    /**
+     * Dijkstra's algorithm that stops as soon as the target is settled or the control is stopped, and counts
+     * its work.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param target the vertex whose distance is wanted, or -1 to settle every reachable vertex
+     * @param distances receives the distances, UNREACHED for vertices not reached
+     * @param workspace scratch arrays for at least graph.getNumVertices() vertices
+     * @param control checked every 1024 settled vertices, or null
+     * @param counters receives the edges scanned, relaxations, heap operations and settled vertices, updated
+     *                 every 1024 settled vertices; null to count nothing. The caller finishes it.
+     * @return the distance of the target, or UNREACHED
+     */
+    public static int dijkstra(Graph graph, int source, int target, int[] distances, Workspace workspace,
+                               RunControl control, AlgorithmCounters counters) {
+        checkSource(graph, source);
+        boolean[] visited = workspace.visited;
+        IndexedMinHeap heap = workspace.heap;
+        Arrays.fill(distances, 0, graph.getNumVertices(), UNREACHED);
+        Arrays.fill(visited, 0, graph.getNumVertices(), false);
+        heap.clear();
+
+        distances[source] = 0;
+        heap.insertOrDecrease(source, 0);
+        int settled = 0;
+        // Counted since the last update of the counters. Every settled vertex was popped once, and every
+        // improvement inserted a vertex into the heap or lowered its key
+        long edgesScanned = 0;
+        long improved = 0;
+        int countedSettled = 0;
+        if (counters != null) {
+            counters.increment(AlgorithmCounters.Counter.HEAP_PUSHES);
+        }
+        while (!heap.isEmpty()) {
+            if ((settled & CHECKPOINT_MASK) == 0) {
+                if (counters != null) {
+                    addDijkstraCounts(counters, edgesScanned, improved, settled - countedSettled);
+                    edgesScanned = 0;
+                    improved = 0;
+                    countedSettled = settled;
+                }
+                if (stopped(control)) {
+                    break;
+                }
+            }
+            int vertex = heap.pollMin();
+            visited[vertex] = true;
+            settled++;
+            if (vertex == target) {
+                break;
+            }
+            int distance = distances[vertex];
+            int degree = graph.getOutDegree(vertex);
+            edgesScanned += degree;
+            for (int edge = 0; edge < degree; edge++) {
+                int neighbor = graph.getNeighbor(vertex, edge);
+                int candidate = distance + graph.getWeight(vertex, edge);
+                if (!visited[neighbor] && candidate < distances[neighbor]) {
+                    distances[neighbor] = candidate;
+                    heap.insertOrDecrease(neighbor, candidate);
+                    improved++;
+                }
+            }
+        }
+        if (counters != null) {
+            addDijkstraCounts(counters, edgesScanned, improved, settled - countedSettled);
+        }
+        return target < 0 ? UNREACHED : distances[target];
+    }
+
+    /**
+     * Bellman-Ford. Stops after the first pass over the edges that changes nothing.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param distances receives the distances, UNREACHED for vertices the source cannot reach
+     * @return false if a negative cycle is reachable from the source, in which case distances are not final
+     */
+    public static boolean bellmanFord(Graph graph, int source, int[] distances) {
+        return bellmanFord(graph, source, distances, null);
+    }
+
+    /**
+     * Bellman-Ford that ends after the current pass once the control is stopped. The distances are then
+     * those of the paths found so far, upper bounds of the shortest ones.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param distances receives the distances, UNREACHED for vertices not reached
+     * @param control checked once per pass, or null
+     * @return false if a negative cycle is reachable from the source; a stopped run returns true
+     */
+    public static boolean bellmanFord(Graph graph, int source, int[] distances, RunControl control) {
+        AlgorithmCounters recorded = AlgorithmCounters.forRecording("Bellman-Ford", graph);
+        try {
+            return bellmanFord(graph, source, distances, control, recorded);
+        } finally {
+            finishRecording(recorded);
+        }
+    }
+
+    /**
+     * Bellman-Ford that ends after the current pass once the control is stopped, and counts its work.
+     *
+     * @param graph the graph
+     * @param source the start vertex
+     * @param distances receives the distances, UNREACHED for vertices not reached
+     * @param control checked once per pass, or null
+     * @param counters receives the edges scanned, the relaxations and a round per pass, updated once per
+     *                 pass; null to count nothing. The caller finishes it.
+     * @return false if a negative cycle is reachable from the source; a stopped run returns true
+     */
+    public static boolean bellmanFord(Graph graph, int source, int[] distances, RunControl control,
+                                      AlgorithmCounters counters) {
+        checkSource(graph, source);
+        int numVertices = graph.getNumVertices();
+        Arrays.fill(distances, 0, numVertices, UNREACHED);
+        distances[source] = 0;
+        for (int pass = 0; pass < numVertices; pass++) {
+            if (stopped(control)) {
+                return true;
+            }
+            if (counters != null) {
+                counters.startRound();
+            }
+            // Only the edges of reached vertices are scanned and relaxed
+            long edgesScanned = 0;
+            long improved = 0;
+            for (int vertex = 0; vertex < numVertices; vertex++) {
+                int distance = distances[vertex];
+                if (distance == UNREACHED) {
+                    continue;
+                }
+                int degree = graph.getOutDegree(vertex);
+                edgesScanned += degree;
+                for (int edge = 0; edge < degree; edge++) {
+                    int neighbor = graph.getNeighbor(vertex, edge);
+                    int candidate = distance + graph.getWeight(vertex, edge);
+                    if (candidate < distances[neighbor]) {
+                        distances[neighbor] = candidate;
+                        improved++;
+                    }
+                }
+            }
+            if (counters != null) {
+                addCounts(counters, edgesScanned, 0, edgesScanned, improved);
+            }
+            if (improved == 0) {
+                return true;
+            }
+        }
+        // Still improving after numVertices passes
+        return false;
+    }
+
+    /**
+     * Floyd-Warshall. For every pivot the rows are independent, so on large graphs they are updated in
+     * parallel.
+     *
+     * @param graph the graph
+     * @param distances receives the all-pairs distances, at least numVertices x numVertices, UNREACHED
+     *                  where there is no path
+     * @return false if the graph has a negative cycle, in which case distances are not final
+     */
+    public static boolean floydWarshall(Graph graph, int[][] distances) {
+        return floydWarshall(graph, distances, null);
+    }
+
+    /**
+     * Floyd-Warshall that ends after the current pivot once the control is stopped. After k pivots the
+     * distances are those of the shortest paths through the first k vertices only.
+     *
+     * @param graph the graph
+     * @param distances receives the all-pairs distances, at least numVertices x numVertices, UNREACHED
+     *                  where no path was found
+     * @param control checked once per pivot, or null
+     * @return false if a negative cycle was found, in which case distances are not final
+     */
+    public static boolean floydWarshall(Graph graph, int[][] distances, RunControl control) {
+        AlgorithmCounters recorded = AlgorithmCounters.forRecording("Floyd-Warshall", graph);
+        try {
+            return floydWarshall(graph, distances, control, recorded);
+        } finally {
+            finishRecording(recorded);
+        }
+    }
+
+    /**
+     * Floyd-Warshall that ends after the current pivot once the control is stopped, and counts its work.
+     *
+     * @param graph the graph
+     * @param distances receives the all-pairs distances, at least numVertices x numVertices, UNREACHED
+     *                  where no path was found
+     * @param control checked once per pivot, or null
+     * @param counters receives the edges scanned, a round per pivot with numVertices^2 relaxations attempted,
+     *                 and the relaxations that succeeded, updated once per pivot; null to count nothing. The
+     *                 caller finishes it.
+     * @return false if a negative cycle was found, in which case distances are not final
+     */
+    public static boolean floydWarshall(Graph graph, int[][] distances, RunControl control,
+                                        AlgorithmCounters counters) {
+        int numVertices = graph.getNumVertices();
+        for (int i = 0; i < numVertices; i++) {
+            int[] row = distances[i];
+            Arrays.fill(row, 0, numVertices, UNREACHED);
+            row[i] = 0;
+            for (int edge = 0; edge < graph.getOutDegree(i); edge++) {
+                int neighbor = graph.getNeighbor(i, edge);
+                row[neighbor] = Math.min(row[neighbor], graph.getWeight(i, edge));
+            }
+        }
+        if (counters != null) {
+            counters.add(AlgorithmCounters.Counter.EDGES_SCANNED, graph.getNumEdges());
+        }
+        for (int k = 0; k < numVertices && !stopped(control); k++) {
+            if (counters != null) {
+                counters.startRound();
+            }
+            int[] rowK = distances[k];
+            int pivot = k;
+            long improved = 0;
+            if (numVertices >= PARALLEL_VERTICES) {
+                improved = IntStream.range(0, numVertices).parallel()
+                        .mapToLong(i -> relaxRow(distances[i], rowK, pivot, numVertices)).sum();
+            } else {
+                for (int i = 0; i < numVertices; i++) {
+                    improved += relaxRow(distances[i], rowK, pivot, numVertices);
+                }
+            }
+            if (counters != null) {
+                addCounts(counters, 0, 0, (long) numVertices * numVertices, improved);
+            }
+        }
+        for (int i = 0; i < numVertices; i++) {
+            if (distances[i][i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Relaxes one row of the matrix through pivot k.
+     *
+     * @return the number of distances the pivot lowered
+     */
+    private static int relaxRow(int[] row, int[] rowK, int k, int numVertices) {
+        int throughK = row[k];
+        if (throughK == UNREACHED) {
+            return 0;
+        }
+        int improved = 0;
+        for (int j = 0; j < numVertices; j++) {
+            int rest = rowK[j];
+            if (rest != UNREACHED && throughK + rest < row[j]) {
+                row[j] = throughK + rest;
+                improved++;
+            }
+        }
+        return improved;
+    }
+
+    private static void finishRecording(AlgorithmCounters recorded) {
+        if (recorded != null) {
+            recorded.finish();
+        }
+    }
+
+    private static void addCounts(AlgorithmCounters counters, long edgesScanned, long verticesVisited,
+                                  long relaxationsAttempted, long relaxationsSucceeded) {
+        counters.add(AlgorithmCounters.Counter.EDGES_SCANNED, edgesScanned);
+        counters.add(AlgorithmCounters.Counter.VERTICES_VISITED, verticesVisited);
+        counters.add(AlgorithmCounters.Counter.RELAXATIONS_ATTEMPTED, relaxationsAttempted);
+        counters.add(AlgorithmCounters.Counter.RELAXATIONS_SUCCEEDED, relaxationsSucceeded);
+    }
+
+    // Dijkstra's relaxes every edge it scans, pushes every vertex it improves and settles every vertex it pops
+    private static void addDijkstraCounts(AlgorithmCounters counters, long edgesScanned, long improved,
+                                          long settled) {
+        addCounts(counters, edgesScanned, settled, edgesScanned, improved);
+        counters.add(AlgorithmCounters.Counter.HEAP_PUSHES, improved);
+        counters.add(AlgorithmCounters.Counter.HEAP_POPS, settled);
+    }
+
+    private static boolean stopped(RunControl control) {
+        return control != null && !control.checkpoint();
+    }
+
+    private static void checkSource(Graph graph, int source) {
+        if (source < 0 || source >= graph.getNumVertices()) {
+            throw new IllegalArgumentException("Invalid start vertex: " + source);
+        }
+    }
+}
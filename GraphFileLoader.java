@@ -0,0 +1,445 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class GraphFileLoader {
+    /**
+     * The supported text formats.
+     * EDGE_LIST: one "source destination [weight]" line per edge, 0-based, '#' or '%' comments, weight 1 if absent.
+     * DIMACS: the shortest path challenge format, a "p sp n m" line and one "a u v w" line per edge, 1-based.
+     * METIS: a "n m [fmt [ncon]]" header and then one line per vertex listing its neighbors, 1-based.
+     */
+    public enum Format {
+        EDGE_LIST, DIMACS, METIS
+    }
+
+    // Files are parsed in chunks of about this size, and in at least a few chunks per core
+    private static final long CHUNK_BYTES = 64L << 20;
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    // Headers must be found within this many bytes from the start of the file
+    private static final int HEADER_BYTES = 1 << 20;
+    private static final int SCAN_BYTES = 1 << 16;
+    // Edges are placed by ranges of 2^RANGE_BITS source vertices, whose offsets fit in the core's cache
+    private static final int RANGE_BITS = 16;
+    // Rough size of one edge in a text file, used to size the per-chunk edge arrays up front
+    private static final int BYTES_PER_EDGE = 16;
+
+    /**
+     * The edges parsed from one chunk, in file order.
+     */
+    private static final class EdgeBuffer {
+        int[] sources;
+        int[] dests;
+        int[] weights;
+        int size;
+        int maxVertex = -1;
+        // METIS only: sources are numbered from 0 within the chunk, and shifted by firstSource once known
+        int numVertexLines;
+        int firstSource;
+
+        EdgeBuffer(int capacity) {
+            sources = new int[capacity];
+            dests = new int[capacity];
+            weights = new int[capacity];
+        }
+
+        void add(int source, int dest, int weight) {
+            if (size == sources.length) {
+                int capacity = Math.max(16, size + (size >> 1));
+                sources = Arrays.copyOf(sources, capacity);
+                dests = Arrays.copyOf(dests, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = source;
+            dests[size] = dest;
+            weights[size] = weight;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(source, dest));
+        }
+
+        int[] countPerRange(int numRanges) {
+            int[] counts = new int[numRanges];
+            for (int i = 0; i < size; i++) {
+                counts[(sources[i] + firstSource) >>> RANGE_BITS]++;
+            }
+            return counts;
+        }
+
+        /**
+         * Copies the edges to their ranges, advancing the per-range cursors.
+         */
+        void partition(int[] cursors, int[] allSources, int[] allDests, int[] allWeights) {
+            for (int i = 0; i < size; i++) {
+                int source = sources[i] + firstSource;
+                int slot = cursors[source >>> RANGE_BITS]++;
+                allSources[slot] = source;
+                allDests[slot] = dests[i];
+                allWeights[slot] = weights[i];
+            }
+        }
+    }
+
+    /**
+     * What the header of a file says about its contents.
+     */
+    private static final class Header {
+        long dataStart;
+        // -1 until known; edge lists have no header and are scanned for the largest vertex first
+        int numVertices = -1;
+        // METIS only: numbers to skip at the start of every vertex line, and whether edges are weighted
+        int skippedPerVertex;
+        boolean edgeWeights = true;
+    }
+
+    /**
+     * One mapped part of the file, starting at the beginning of a line and ending after a newline or at
+     * the end of the file.
+     */
+    private static final class Chunk {
+        final MappedByteBuffer bytes;
+        final long fileOffset;
+
+        Chunk(MappedByteBuffer bytes, long fileOffset) {
+            this.bytes = bytes;
+            this.fileOffset = fileOffset;
+        }
+    }
+
+    /**
+     * Reads whitespace separated integers from a chunk without creating Strings.
+     */
+    private static final class LineReader {
+        private final ByteBuffer bytes;
+        private final long fileOffset;
+        private final int limit;
+        private int pos;
+
+        LineReader(ByteBuffer bytes, long fileOffset) {
+            this.bytes = bytes;
+            this.fileOffset = fileOffset;
+            limit = bytes.limit();
+            pos = 0;
+        }
+
+        boolean hasMoreLines() {
+            return pos < limit;
+        }
+
+        /**
+         * Returns the next non-blank byte of the current line without consuming it, or '\n' at the end.
+         */
+        byte peek() {
+            while (pos < limit) {
+                byte b = bytes.get(pos);
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return b;
+                }
+                pos++;
+            }
+            return '\n';
+        }
+
+        boolean atLineEnd() {
+            return peek() == '\n';
+        }
+
+        void skip() {
+            pos++;
+        }
+
+        void nextLine() {
+            while (pos < limit) {
+                if (bytes.get(pos++) == '\n') {
+                    return;
+                }
+            }
+        }
+
+        int readInt() {
+            peek();
+            int start = pos;
+            boolean negative = pos < limit && bytes.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digitsStart = pos;
+            while (pos < limit) {
+                int digit = bytes.get(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw error("Number out of range", start);
+                }
+                pos++;
+            }
+            if (pos == digitsStart || (pos < limit && !isSeparator(bytes.get(pos)))) {
+                throw error("Expected an integer", start);
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw error("Number out of range", start);
+            }
+            return (int) value;
+        }
+
+        NumberFormatException error(String message, int at) {
+            return new NumberFormatException(message + " at byte " + (fileOffset + at));
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+    }
+
+    /**
+     * Loads a graph, choosing the format from the file name: .gr is DIMACS, .graph and .metis are METIS,
+     * .csr is a binary GraphSnapshot and anything else is an edge list.
+     */
+    public static Graph load(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csr")) {
+            return GraphSnapshot.read(file);
+        } else if (name.endsWith(".gr")) {
+            return load(file, Format.DIMACS);
+        } else if (name.endsWith(".graph") || name.endsWith(".metis")) {
+            return load(file, Format.METIS);
+        }
+        return load(file, Format.EDGE_LIST);
+    }
+
+    /**
+     * Loads a graph file into a CsrGraph. The file is memory-mapped and split at line boundaries, and the
+     * chunks are parsed in parallel straight from the mapped bytes into flat per-chunk edge arrays. The
+     * edges are then partitioned by ranges of source vertices, so that every range can count and place
+     * its edges into the CSR arrays on its own thread without atomic operations. The edges of each vertex
+     * keep the order they have in the file. Undirected METIS graphs keep both directions of every edge,
+     * as listed in the file.
+     *
+     * @param file the file to read
+     * @param format the format of the file
+     * @return the graph
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if the file is malformed or has more than Integer.MAX_VALUE edges
+     */
+    public static Graph load(Path file, Format format) throws IOException {
+        Header header;
+        EdgeBuffer[] parsed;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            header = readHeader(channel, format);
+            Chunk[] chunks = split(channel, header.dataStart);
+            parsed = new EdgeBuffer[chunks.length];
+            IntStream.range(0, chunks.length).parallel().forEach(c -> parsed[c] = parse(chunks[c], format, header));
+        }
+
+        if (format == Format.EDGE_LIST) {
+            int maxVertex = Arrays.stream(parsed).mapToInt(edges -> edges.maxVertex).max().orElse(-1);
+            header.numVertices = Math.addExact(maxVertex, 1);
+        } else if (format == Format.METIS) {
+            // Each chunk numbered its vertex lines from 0
+            int vertex = 0;
+            for (EdgeBuffer edges : parsed) {
+                edges.firstSource = vertex;
+                vertex += edges.numVertexLines;
+            }
+            if (vertex != header.numVertices) {
+                throw new NumberFormatException("The header announces " + header.numVertices
+                        + " vertices but the file lists " + vertex);
+            }
+        }
+        int numVertices = header.numVertices;
+        int numRanges = (numVertices >>> RANGE_BITS) + 1;
+
+        // Where the edges of each chunk go within each source range, keeping the chunks in file order
+        int[][] rangeCursors = new int[parsed.length][];
+        IntStream.range(0, parsed.length).parallel().forEach(c -> rangeCursors[c] = parsed[c].countPerRange(numRanges));
+        int[] rangeStarts = new int[numRanges + 1];
+        try {
+            int position = 0;
+            for (int range = 0; range < numRanges; range++) {
+                rangeStarts[range] = position;
+                for (int[] cursors : rangeCursors) {
+                    int count = cursors[range];
+                    cursors[range] = position;
+                    position = Math.addExact(position, count);
+                }
+            }
+            rangeStarts[numRanges] = position;
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("More than " + Integer.MAX_VALUE + " edges");
+        }
+
+        // Partition the edges by source range
+        int numEdges = rangeStarts[numRanges];
+        int[] sources = new int[numEdges];
+        int[] dests = new int[numEdges];
+        int[] edgeWeights = new int[numEdges];
+        IntStream.range(0, parsed.length).parallel().forEach(c -> {
+            parsed[c].partition(rangeCursors[c], sources, dests, edgeWeights);
+            parsed[c] = null;
+        });
+
+        // Every range owns the offsets of its vertices: count, then place its edges
+        int[] offsets = new int[numVertices + 1];
+        IntStream.range(0, numRanges).parallel().forEach(range -> {
+            for (int i = rangeStarts[range]; i < rangeStarts[range + 1]; i++) {
+                offsets[sources[i] + 1]++;
+            }
+        });
+        for (int v = 0; v < numVertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[numEdges];
+        int[] weights = new int[numEdges];
+        IntStream.range(0, numRanges).parallel().forEach(range -> {
+            int firstVertex = range << RANGE_BITS;
+            int[] next = Arrays.copyOfRange(offsets, firstVertex, Math.min(numVertices, firstVertex + (1 << RANGE_BITS)));
+            for (int i = rangeStarts[range]; i < rangeStarts[range + 1]; i++) {
+                int slot = next[sources[i] - firstVertex]++;
+                targets[slot] = dests[i];
+                weights[slot] = edgeWeights[i];
+            }
+        });
+        return new CsrGraph(numVertices, offsets, targets, weights);
+    }
+
+    private static Header readHeader(FileChannel channel, Format format) throws IOException {
+        Header header = new Header();
+        if (format == Format.EDGE_LIST) {
+            return header;
+        }
+        MappedByteBuffer start = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER_BYTES));
+        LineReader reader = new LineReader(start, 0);
+        while (reader.hasMoreLines()) {
+            byte first = reader.peek();
+            if (format == Format.DIMACS && first == 'p') {
+                // "p sp n m": the problem type is not checked, only the number of vertices is needed
+                reader.skip();
+                while (!reader.atLineEnd() && (reader.peek() < '0' || reader.peek() > '9')) {
+                    reader.skip();
+                }
+                header.numVertices = reader.readInt();
+                // Arcs may only follow the problem line, so the whole file is parsed from the start
+                header.dataStart = 0;
+                return header;
+            } else if (format == Format.METIS && first != '%' && first != '\n') {
+                header.numVertices = reader.readInt();
+                reader.readInt();
+                int fmt = reader.atLineEnd() ? 0 : reader.readInt();
+                int numConstraints = reader.atLineEnd() ? 1 : reader.readInt();
+                header.edgeWeights = fmt % 10 == 1;
+                header.skippedPerVertex = (fmt / 100 == 1 ? 1 : 0) + ((fmt / 10) % 10 == 1 ? numConstraints : 0);
+                reader.nextLine();
+                header.dataStart = reader.pos;
+                return header;
+            }
+            reader.nextLine();
+        }
+        throw new NumberFormatException("No " + format + " header found in the first " + HEADER_BYTES + " bytes");
+    }
+
+    /**
+     * Maps the file from dataStart on as chunks that begin and end at line boundaries.
+     */
+    private static Chunk[] split(FileChannel channel, long dataStart) throws IOException {
+        long size = channel.size();
+        long length = size - dataStart;
+        int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(CHUNK_BYTES, length / parallelism + 1));
+        int numChunks = (int) Math.max(1, (length + chunkBytes - 1) / chunkBytes);
+
+        Chunk[] chunks = new Chunk[numChunks];
+        int count = 0;
+        long start = dataStart;
+        for (int c = 0; c < numChunks && start < size; c++) {
+            long end = c == numChunks - 1 ? size : nextLineStart(channel, Math.max(start, dataStart + (c + 1) * chunkBytes));
+            if (end - start > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Line too long near byte " + start);
+            }
+            chunks[count++] = new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), start);
+            start = end;
+        }
+        return Arrays.copyOf(chunks, count);
+    }
+
+    /**
+     * Returns the position just after the first newline at or after position, or the file size.
+     */
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_BYTES);
+        long size = channel.size();
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += Math.max(read, 0);
+        }
+        return size;
+    }
+
+    /**
+     * Parses every edge of a chunk, converting vertices to 0-based IDs and checking them.
+     */
+    private static EdgeBuffer parse(Chunk chunk, Format format, Header header) {
+        LineReader reader = new LineReader(chunk.bytes, chunk.fileOffset);
+        EdgeBuffer edges = new EdgeBuffer(chunk.bytes.limit() / BYTES_PER_EDGE + 16);
+        int numVertices = header.numVertices;
+        while (reader.hasMoreLines()) {
+            int lineStart = reader.pos;
+            byte first = reader.peek();
+            if (format == Format.EDGE_LIST) {
+                if (first != '\n' && first != '#' && first != '%') {
+                    int source = reader.readInt();
+                    int dest = reader.readInt();
+                    int weight = reader.atLineEnd() ? 1 : reader.readInt();
+                    check(reader, source, numVertices, lineStart);
+                    check(reader, dest, numVertices, lineStart);
+                    edges.add(source, dest, weight);
+                }
+            } else if (format == Format.DIMACS) {
+                if (first == 'a') {
+                    reader.skip();
+                    int source = reader.readInt() - 1;
+                    int dest = reader.readInt() - 1;
+                    int weight = reader.readInt();
+                    check(reader, source, numVertices, lineStart);
+                    check(reader, dest, numVertices, lineStart);
+                    edges.add(source, dest, weight);
+                } else if (first != 'c' && first != 'p' && first != '\n') {
+                    throw reader.error("Unexpected DIMACS line", lineStart);
+                }
+            } else if (first != '%') {
+                // Every other METIS line describes the next vertex, an empty one a vertex without edges
+                for (int i = 0; i < header.skippedPerVertex; i++) {
+                    reader.readInt();
+                }
+                while (!reader.atLineEnd()) {
+                    int dest = reader.readInt() - 1;
+                    int weight = header.edgeWeights ? reader.readInt() : 1;
+                    check(reader, dest, numVertices, lineStart);
+                    edges.add(edges.numVertexLines, dest, weight);
+                }
+                edges.numVertexLines++;
+            }
+            reader.nextLine();
+        }
+        return edges;
+    }
+
+    private static void check(LineReader reader, int vertex, int numVertices, int lineStart) {
+        if (vertex < 0 || (numVertices >= 0 && vertex >= numVertices)) {
+            throw reader.error("Vertex out of range", lineStart);
+        }
+    }
+}
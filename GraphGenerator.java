@@ -10,15 +10,27 @@ public class GraphGenerator {
      * @throws NumberFormatException if numVertices is less than or equal to 0
      */
     public static Graph generateRandomGraph(int numVertices, double edgeProbability, int minWeight, int maxWeight) throws NumberFormatException {
+        return generateRandomGraph(numVertices, edgeProbability, minWeight, maxWeight, new Random());
+    }
+
+    /**
+     * Generates a random graph like generateRandomGraph above, drawing edges and weights from the given
+     * Random, so that a fixed seed always produces the same graph (e.g. for benchmarks).
+     *
+     * @param random the source of randomness
+     * @return a randomly generated graph
+     * @throws NumberFormatException if numVertices is less than or equal to 0
+     */
+    public static Graph generateRandomGraph(int numVertices, double edgeProbability, int minWeight, int maxWeight,
+                                            Random random) throws NumberFormatException {
 
         //Will throw exception after first 2 inputs
         if (numVertices <= 0) {
             throw new NumberFormatException("Invalid Value! Try Again.");
         }
 
-        //initialize graph and random instance
+        //initialize graph
         Graph graph = new Graph(numVertices);
-        Random random = new Random();
 
         // Iterate over all possible edges and add them with probability edgeProbability
         for (int i = 0; i < numVertices; i++) {
@@ -31,4 +43,56 @@ public class GraphGenerator {
 
         return graph;
     }
+
+    /**
+     * Generates a random graph with the same distribution as generateRandomGraph, every ordered pair of distinct
+     * vertices being an edge with probability edgeProbability, in O(V + E) time instead of O(V^2). Instead of
+     * drawing a number for every pair, it draws the geometrically distributed gap to the next pair that is an
+     * edge and skips the pairs in between, so a sparse graph with many vertices is generated in
+     * proportion to its edges.
+     *
+     * @param numVertices      the number of vertices in the graph
+     * @param edgeProbability  the probability that two vertices are connected by an edge
+     * @return                 a randomly generated graph
+     * @throws NumberFormatException if numVertices is less than or equal to 0
+     */
+    public static Graph generateSparseRandomGraph(int numVertices, double edgeProbability, int minWeight,
+                                                  int maxWeight) throws NumberFormatException {
+        return generateSparseRandomGraph(numVertices, edgeProbability, minWeight, maxWeight, new Random());
+    }
+
+    /**
+     * Generates a random graph like generateSparseRandomGraph above, drawing gaps and weights from the given
+     * Random. A seed gives a different graph here than with generateRandomGraph.
+     *
+     * @param random the source of randomness
+     * @return a randomly generated graph
+     * @throws NumberFormatException if numVertices is less than or equal to 0
+     */
+    public static Graph generateSparseRandomGraph(int numVertices, double edgeProbability, int minWeight,
+                                                  int maxWeight, Random random) throws NumberFormatException {
+        if (numVertices <= 0) {
+            throw new NumberFormatException("Invalid Value! Try Again.");
+        }
+        Graph graph = new Graph(numVertices);
+        if (!(edgeProbability > 0) || numVertices == 1) {
+            return graph;
+        }
+
+        // Pair p is source p / (V - 1) and the p % (V - 1)-th other vertex, so self loops are never counted
+        long numPairs = (long) numVertices * (numVertices - 1);
+        double logMiss = Math.log1p(-Math.min(edgeProbability, 1));
+        long pair = -1;
+        while (true) {
+            // The number of pairs skipped before the next edge, from a uniform number in (0, 1]
+            double gap = edgeProbability >= 1 ? 0 : Math.floor(Math.log(1 - random.nextDouble()) / logMiss);
+            if (gap >= numPairs - 1 - pair) {
+                return graph;
+            }
+            pair += 1 + (long) gap;
+            int source = (int) (pair / (numVertices - 1));
+            int other = (int) (pair % (numVertices - 1));
+            graph.addEdge(source, other < source ? other : other + 1, random.nextInt(minWeight, maxWeight));
+        }
+    }
 }
\ No newline at end of file
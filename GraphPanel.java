@@ -0,0 +1,537 @@
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.swing.*;
+
+public abstract class GraphPanel extends JPanel {
+    protected static final int VERTEX_RADIUS = 20;
+    protected static final int EDGE_LENGTH = 120;
+
+    // Level of detail: below DETAIL_SCALE vertices become single colored blocks, and edges become a density
+    // raster, as they also do with more visible edges than EDGE_BUDGET; labels are drawn from LABEL_SCALE up
+    private static final double DETAIL_SCALE = 0.3;
+    private static final double LABEL_SCALE = 0.6;
+    private static final int EDGE_BUDGET = 20000;
+    private static final int[] PIXEL_COLORS = {0xFFFFFFFF, 0xFF808080, 0xFF000000};
+
+    protected final Graph graph;
+    protected final VertexStateBuffer stateBuffer;
+    protected final DirtyRegionRepainter dirtyRegions;
+    protected final AnimationScheduler scheduler;
+    // Counters of the current run, used by the algorithm thread; lastRun publishes them to other threads
+    protected AlgorithmCounters counters;
+    private volatile AlgorithmCounters lastRun;
+    // Control of the current run, polled by the algorithm thread at its checkpoints
+    protected RunControl control;
+    // Time budget of every run in milliseconds, 0 for none
+    private volatile long runBudgetMillis;
+    private final TableView table;
+    private final StaticLayerCache staticLayer;
+    // Replaced on the Event Dispatch Thread while the force-directed layout is refined
+    private VertexLayout layout;
+    private SpatialIndex spatialIndex;
+    private final Viewport viewport;
+    private final PerformanceHud hud;
+    private EdgeDensityRaster densityRaster;
+    private EdgeGeometry edgeGeometry;
+    private final Path2D.Float edgeLines = new Path2D.Float();
+    private final Path2D.Float arrowHeads = new Path2D.Float();
+    private int[] visibleEdges = new int[64];
+    private int numVisibleEdges;
+    private final NumberTextCache labelText = new NumberTextCache();
+    private BufferedImage vertexPixels;
+    private boolean detailedEdges;
+
+    /**
+     * GraphPanel is the drawing surface shared by all visualizers. It lays the graph out, lets the user
+     * zoom (mouse wheel) and pan (drag) around it, and only draws the vertices and edges that a spatial
+     * index reports as visible. Subclasses run the algorithm and supply the edge drawing.
+     *
+     * @param graph the graph that is visualized
+     * @param valuesPerVertex the number of int values the algorithm publishes per vertex
+     * @param table the table showing the published values
+     */
+    protected GraphPanel(Graph graph, int valuesPerVertex, TableView table) {
+        this.graph = graph;
+        this.table = table;
+        stateBuffer = new VertexStateBuffer(graph.getNumVertices(), valuesPerVertex);
+        staticLayer = new StaticLayerCache();
+        dirtyRegions = new DirtyRegionRepainter(this, stateBuffer, this::getVertexBounds, table::getRowBounds);
+        scheduler = new AnimationScheduler(stateBuffer, dirtyRegions, 2);
+        VertexLayout cachedLayout = ForceDirectedLayout.getCached(graph);
+        layout = cachedLayout != null ? cachedLayout : VertexLayout.grid(graph.getNumVertices(), EDGE_LENGTH, VERTEX_RADIUS);
+        spatialIndex = new SpatialIndex(graph, layout, EDGE_LENGTH * 2);
+        viewport = new Viewport();
+
+        // Registered before the viewport, which ignores wheel events the table consumed
+        addMouseWheelListener(e -> {
+            if (table.getBounds().contains(e.getPoint())) {
+                e.consume();
+                Rectangle before = table.getBounds();
+                if (table.scrollWheel(e.getWheelRotation(), e.isShiftDown())) {
+                    repaint(before.union(table.getBounds()));
+                }
+            }
+        });
+        viewport.install(this, () -> {
+            staticLayer.invalidate();
+            repaint();
+        });
+
+        // F3 toggles the performance overlay
+        hud = new PerformanceHud(this, scheduler, this::getCounters);
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("F3"), "toggleHud");
+        getActionMap().put("toggleHud", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                hud.setVisible(!hud.isVisible());
+            }
+        });
+
+        // Show the grid right away and move to the force-directed layout as it is computed
+        if (cachedLayout == null) {
+            ForceDirectedLayout.refineInBackground(graph, layout, EDGE_LENGTH, VERTEX_RADIUS, this::setVertexLayout);
+        }
+    }
+
+    /**
+     * Computes the force-directed layout of a graph on the calling thread, so visualizers created afterwards
+     * start from the finished layout instead of refining it in the background. Used by offscreen renderers.
+     *
+     * @param graph the graph to lay out
+     */
+    public static void prepareLayout(Graph graph) {
+        ForceDirectedLayout.computeLayout(graph, VertexLayout.grid(graph.getNumVertices(), EDGE_LENGTH, VERTEX_RADIUS),
+                EDGE_LENGTH, VERTEX_RADIUS);
+    }
+
+    /**
+     * Moves the vertices to a new layout and redraws everything. Event Dispatch Thread only.
+     *
+     * @param newLayout the new vertex positions
+     */
+    public void setVertexLayout(VertexLayout newLayout) {
+        layout = newLayout;
+        spatialIndex = new SpatialIndex(graph, layout, EDGE_LENGTH * 2);
+        densityRaster = null;
+        edgeGeometry = null;
+        staticLayer.invalidate();
+        repaint();
+    }
+
+    /**
+     * Zooms so the whole graph fills the part of the panel left of the table, e.g. for exported animations.
+     * The table is drawn opaque on top of the graph, so the graph is kept out from under it.
+     */
+    public void fitToView() {
+        table.layout(getFontMetrics(getFont()), getWidth(), getHeight());
+        Rectangle tableBounds = table.getBounds();
+        int graphWidth = tableBounds.isEmpty() ? getWidth() : Math.max(1, Math.min(getWidth(), tableBounds.x));
+        viewport.fit(graphWidth, getHeight(), layout.getWidth(), layout.getHeight());
+    }
+
+    /**
+     * Copies the current vertex state, published or not. Algorithm thread only, e.g. from a
+     * StepListener recording the run.
+     *
+     * @return a snapshot owned by the caller
+     */
+    public VertexStateBuffer.Snapshot captureSnapshot() {
+        return stateBuffer.copyCurrent();
+    }
+
+    /**
+     * Returns the values this visualizer's algorithm computed, as shown in its table: distances, discovery
+     * times or the distance matrix. The view reads the current values without copying them, so call it from
+     * the algorithm thread once the run is over, e.g. to export them with ResultExporter.
+     *
+     * @return one row per vertex, one column per published value
+     */
+    public ResultExporter.Table getResults() {
+        return new ResultExporter.Table() {
+            @Override
+            public int getNumRows() {
+                return stateBuffer.getNumVertices();
+            }
+
+            @Override
+            public int getNumColumns() {
+                return stateBuffer.getValuesPerVertex();
+            }
+
+            @Override
+            public String getColumnName(int column) {
+                return table.getColumnName(column);
+            }
+
+            @Override
+            public int getValue(int row, int column) {
+                return stateBuffer.getValue(row, column);
+            }
+        };
+    }
+
+    /**
+     * Starts the counters of a new run of this visualizer's algorithm and gives the run its own control,
+     * installed in the scheduler, so that stopping one run never stops the next. Called at the start of
+     * traverse.
+     *
+     * @param algorithm the name the run is published under
+     * @return the new counters, also stored in the counters field
+     */
+    protected AlgorithmCounters startRun(String algorithm) {
+        long budgetMillis = runBudgetMillis;
+        control = budgetMillis > 0 ? RunControl.withTimeout(budgetMillis, TimeUnit.MILLISECONDS) : new RunControl();
+        scheduler.setRunControl(control);
+        counters = AlgorithmCounters.start(algorithm, graph);
+        lastRun = counters;
+        return counters;
+    }
+
+    /**
+     * Gives every following run a time budget, after which it stops and shows its partial result.
+     *
+     * @param budgetMillis the budget in milliseconds, 0 for none
+     */
+    public void setRunBudget(long budgetMillis) {
+        runBudgetMillis = budgetMillis;
+    }
+
+    /**
+     * Cancels the run when the visualizer leaves the screen, e.g. because its window was closed, so that it
+     * does not go on computing for nobody.
+     */
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        scheduler.getRunControl().cancel();
+    }
+
+    /**
+     * Returns the performance overlay, e.g. to show it without pressing F3. Event Dispatch Thread only.
+     */
+    public PerformanceHud getHud() {
+        return hud;
+    }
+
+    /**
+     * Returns the counters of the current or last run, or null before the first run. Any thread.
+     */
+    public AlgorithmCounters getCounters() {
+        return lastRun;
+    }
+
+    /**
+     * Shows the outcome of a run in a dialog, or prints it when there is no display (e.g. while exporting).
+     *
+     * @param message the text to show
+     */
+    protected static void showResult(String message) {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.out.println(message);
+        } else {
+            JOptionPane.showMessageDialog(null, message, "Result", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    /**
+     * Returns the scheduler that paces this visualizer's algorithm, e.g. to attach PlaybackControls.
+     */
+    public AnimationScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Draws on the JPanel using the specified Graphics object.
+     * Essentially helps draw the graph.
+     *
+     * @param g the Graphics object to draw the arrow on
+     */
+    @Override
+    public void paintComponent(Graphics g) {
+        AlgorithmEvents.FrameEvent event = new AlgorithmEvents.FrameEvent();
+        event.begin();
+        long start = System.nanoTime();
+        super.paintComponent(g);
+
+        // Copy out a consistent frame of the vertex state published by the algorithm thread
+        VertexStateBuffer.Snapshot frame = stateBuffer.readSnapshot();
+        paintFrame((Graphics2D) g, frame);
+
+        // The algorithm thread was mid-write, so try again instead of leaving an old frame on screen
+        boolean stale = stateBuffer.isSnapshotStale();
+        if (stale) {
+            repaint();
+        }
+        if (hud.isVisible()) {
+            hud.framePainted(frame, stale, System.nanoTime() - start);
+            hud.paint((Graphics2D) g);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            AlgorithmCounters run = lastRun;
+            if (run != null) {
+                event.setCounts(run);
+            } else {
+                event.numVertices = graph.getNumVertices();
+                event.numEdges = graph.getNumEdges();
+            }
+            event.visualizer = getClass().getSimpleName();
+            Rectangle clip = g.getClipBounds();
+            event.clipWidth = clip == null ? getWidth() : clip.width;
+            event.clipHeight = clip == null ? getHeight() : clip.height;
+            event.stale = stale;
+            event.commit();
+        }
+    }
+
+    /**
+     * Draws the graph and the table for the given vertex state on top of the background. paintComponent
+     * uses it with the latest published state; offscreen renderers such as AnimationExporter call it with
+     * recorded states, using one panel per rendering thread.
+     *
+     * @param g the Graphics object to draw on
+     * @param frame the vertex state to show
+     */
+    public void paintFrame(Graphics2D g, VertexStateBuffer.Snapshot frame) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        viewport.center(getWidth(), getHeight(), layout.getWidth(), layout.getHeight());
+        updateDetailLevel();
+
+        // Edges only change on resize, zoom, pan or layout updates, so they come from a cached image
+        g2d.drawImage(staticLayer.getImage(this, this::paintStaticLayer), 0, 0, null);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        // Only vertices inside the clip are drawn: it covers the visible area or what changed
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        Rectangle2D visible = viewport.toWorld(clip);
+        if (viewport.getScale() >= DETAIL_SCALE) {
+            Graphics2D world = (Graphics2D) g2d.create();
+            world.transform(viewport.getTransform());
+            spatialIndex.queryVertices(visible.getMinX() - VERTEX_RADIUS * 2 - 2, visible.getMinY() - VERTEX_RADIUS - 2,
+                    visible.getMaxX() + VERTEX_RADIUS + 2, visible.getMaxY() + VERTEX_RADIUS + 2,
+                    vertex -> drawVertex(world, frame, vertex));
+            world.dispose();
+        } else {
+            drawVertexPixels(g2d, frame, clip, visible);
+        }
+
+        paintTable(g2d, frame);
+        g2d.dispose();
+    }
+
+    /**
+     * Draws the table on top of the graph on an opaque background, so vertices and edges behind it do not
+     * hide values. Only the rows and columns that fit are laid out and drawn.
+     *
+     * @param g2d the Graphics object to draw on, in screen coordinates
+     * @param frame the vertex state to show
+     */
+    public void paintTable(Graphics2D g2d, VertexStateBuffer.Snapshot frame) {
+        table.layout(g2d.getFontMetrics(), getWidth(), getHeight());
+        g2d.setColor(getBackground());
+        g2d.fill(table.getBounds());
+        table.paint(g2d, frame);
+    }
+
+    private void drawVertex(Graphics2D g2d, VertexStateBuffer.Snapshot frame, int i) {
+        byte state = frame.getState(i);
+        if (state == VertexStateBuffer.WHITE) {
+            g2d.setColor(Color.WHITE);
+        } else if (state == VertexStateBuffer.GRAY) {
+            g2d.setColor(Color.GRAY);
+        } else {
+            g2d.setColor(Color.BLACK);
+        }
+
+        int x = (int) layout.getX(i) - VERTEX_RADIUS;
+        int y = (int) layout.getY(i) - VERTEX_RADIUS;
+
+        // Highlight the vertex if it was discovered during the traversal
+        if (state != VertexStateBuffer.WHITE) {
+            g2d.fillOval(x, y, VERTEX_RADIUS * 2, VERTEX_RADIUS * 2);
+            g2d.setColor(Color.WHITE);
+        } else {
+            g2d.drawOval(x, y, VERTEX_RADIUS * 2, VERTEX_RADIUS * 2);
+            g2d.setColor(Color.BLACK);
+        }
+        if (showLabels()) {
+            g2d.drawString(labelText.text(i), x + VERTEX_RADIUS, y + VERTEX_RADIUS + 5);
+        }
+    }
+
+    /**
+     * Low detail vertex drawing: every vertex in the clip becomes a small block of its state color, written
+     * straight into an int raster, so the cost is a few int stores per vertex and one image draw.
+     */
+    private void drawVertexPixels(Graphics2D g2d, VertexStateBuffer.Snapshot frame, Rectangle clip, Rectangle2D visible) {
+        int width = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
+        if (vertexPixels == null || vertexPixels.getWidth() != width || vertexPixels.getHeight() != height) {
+            vertexPixels = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        int[] pixels = ((DataBufferInt) vertexPixels.getRaster().getDataBuffer()).getData();
+        Rectangle area = clip.intersection(new Rectangle(0, 0, width, height));
+        if (area.isEmpty()) {
+            return;
+        }
+        for (int row = area.y; row < area.y + area.height; row++) {
+            Arrays.fill(pixels, row * width + area.x, row * width + area.x + area.width, 0);
+        }
+
+        int size = Math.max(1, (int) (VERTEX_RADIUS * 2 * viewport.getScale()));
+        spatialIndex.queryVertices(visible.getMinX() - VERTEX_RADIUS, visible.getMinY() - VERTEX_RADIUS,
+                visible.getMaxX() + VERTEX_RADIUS, visible.getMaxY() + VERTEX_RADIUS, vertex -> {
+                    int color = PIXEL_COLORS[frame.getState(vertex)];
+                    int x0 = (int) viewport.toScreenX(layout.getX(vertex)) - size / 2;
+                    int y0 = (int) viewport.toScreenY(layout.getY(vertex)) - size / 2;
+                    for (int y = Math.max(area.y, y0); y < Math.min(area.y + area.height, y0 + size); y++) {
+                        for (int x = Math.max(area.x, x0); x < Math.min(area.x + area.width, x0 + size); x++) {
+                            pixels[y * width + x] = color;
+                        }
+                    }
+                });
+        g2d.drawImage(vertexPixels, 0, 0, null);
+    }
+
+    /**
+     * Chooses between full detail and the aggregated low detail rendering for the current view, and
+     * redraws the static layer when the choice changes.
+     */
+    private void updateDetailLevel() {
+        boolean wasDetailed = detailedEdges;
+        detailedEdges = false;
+        if (viewport.getScale() >= DETAIL_SCALE) {
+            Rectangle2D visible = viewport.toWorld(new Rectangle(0, 0, getWidth(), getHeight()));
+            detailedEdges = spatialIndex.estimateEdges(visible.getMinX(), visible.getMinY(),
+                    visible.getMaxX(), visible.getMaxY()) <= EDGE_BUDGET;
+        }
+        if (detailedEdges != wasDetailed) {
+            staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Returns whether text labels (vertex numbers, edge weights) are readable at the current zoom.
+     * Subclasses check it before drawing weight labels.
+     *
+     * @return true if labels should be drawn
+     */
+    protected boolean showLabels() {
+        return viewport.getScale() >= LABEL_SCALE;
+    }
+
+    /**
+     * Draws the parts of the visualization that do not change during a traversal: the visible edges with
+     * their arrowheads, or the edge density image when there are too many edges to draw one by one. The
+     * table is drawn with the dynamic overlay. paintFrame only calls it when the cached static layer is stale;
+     * RenderBenchmark calls it directly to measure edge drawing.
+     *
+     * @param g2d the Graphics object of the cached image
+     */
+    public void paintStaticLayer(Graphics2D g2d) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        Graphics2D world = (Graphics2D) g2d.create();
+        world.transform(viewport.getTransform());
+
+        if (!detailedEdges) {
+            // Too many edges to draw one by one: show the precomputed density image, whose size is fixed
+            if (densityRaster == null) {
+                densityRaster = new EdgeDensityRaster(graph, layout);
+            }
+            world.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            world.drawImage(densityRaster.getImage(),
+                    AffineTransform.getScaleInstance(densityRaster.getCellSize(), densityRaster.getCellSize()), null);
+            world.dispose();
+            return;
+        }
+
+        // Set edge color and thickness
+        int weight = 5;
+        world.setStroke(new BasicStroke((float) Math.log(weight)));
+        world.setColor(Color.BLACK);
+
+        // Collect the visible edges into two reusable paths from the precomputed geometry, then draw each
+        // path with a single call. Pad the visible area so arrowheads and labels just outside it are kept
+        if (edgeGeometry == null) {
+            edgeGeometry = new EdgeGeometry(graph, layout);
+        }
+        EdgeGeometry geometry = edgeGeometry;
+        edgeLines.reset();
+        arrowHeads.reset();
+        numVisibleEdges = 0;
+        Rectangle2D visible = viewport.toWorld(new Rectangle(0, 0, getWidth(), getHeight()));
+        int pad = VERTEX_RADIUS * 2;
+        spatialIndex.queryEdges(visible.getMinX() - pad, visible.getMinY() - pad,
+                visible.getMaxX() + pad, visible.getMaxY() + pad, (source, edge) -> {
+                    geometry.appendLine(edgeLines, source, edge);
+                    geometry.appendArrowHead(arrowHeads, source, edge);
+                    if (numVisibleEdges * 2 == visibleEdges.length) {
+                        visibleEdges = Arrays.copyOf(visibleEdges, visibleEdges.length * 2);
+                    }
+                    visibleEdges[numVisibleEdges * 2] = source;
+                    visibleEdges[numVisibleEdges * 2 + 1] = edge;
+                    numVisibleEdges++;
+                });
+        world.draw(edgeLines);
+        world.fill(arrowHeads);
+
+        if (showsEdgeWeights() && showLabels()) {
+            world.setColor(Color.RED);
+            for (int i = 0; i < numVisibleEdges; i++) {
+                int source = visibleEdges[i * 2];
+                int edge = visibleEdges[i * 2 + 1];
+                world.drawString(labelText.text(graph.getWeight(source, edge)),
+                        (int) geometry.getMidX(source, edge), (int) geometry.getMidY(source, edge));
+            }
+        }
+        world.dispose();
+    }
+
+    /**
+     * Returns the screen area covered by a vertex and its label under the current zoom and pan.
+     *
+     * @param vertex the vertex whose bounds are wanted
+     * @return the bounds of the vertex
+     */
+    protected Rectangle getVertexBounds(int vertex) {
+        double x = viewport.toScreenX(layout.getX(vertex) - VERTEX_RADIUS - 2);
+        double y = viewport.toScreenY(layout.getY(vertex) - VERTEX_RADIUS - 2);
+        double scale = viewport.getScale();
+        return new Rectangle((int) Math.floor(x), (int) Math.floor(y),
+                (int) Math.ceil((VERTEX_RADIUS * 3 + 4) * scale) + 1, (int) Math.ceil((VERTEX_RADIUS * 2 + 4) * scale) + 1);
+    }
+
+    /**
+     * Returns whether edge weights are drawn next to the arrowheads. Traversals that ignore weights
+     * override this to return false.
+     *
+     * @return true if weight labels should be drawn
+     */
+    protected boolean showsEdgeWeights() {
+        return true;
+    }
+
+    /**
+     * Returns the preferred size of the visualization based on the number of vertices in the graph.
+     *
+     * @return a Dimension object representing the preferred size of the visualization
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        int radius = 20;
+        int width = Math.min(graph.getNumVertices() * radius * 2, 1000);
+        int height = radius * 2;
+        return new Dimension(width, height);
+    }
+}
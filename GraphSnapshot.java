@@ -0,0 +1,242 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class GraphSnapshot {
+    // Layout, all little-endian: a 32 byte header (magic, version, numVertices, numEdges, reserved), then
+    // int[numVertices + 1] offsets, int[numEdges] targets and int[numEdges] weights, each section
+    // starting at a multiple of 8 bytes
+    private static final long MAGIC = 0x5253434850415247L; // "GRAPHCSR" read as a little-endian long
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    // Sections are written through this many direct buffers of BLOCK_BYTES each per gather write
+    private static final int BLOCK_BYTES = 1 << 20;
+    private static final int BLOCKS_PER_WRITE = 8;
+
+    /**
+     * A Graph that reads its CSR arrays straight from a mapped snapshot file. Opening it copies nothing:
+     * pages are loaded by the operating system the first time they are touched.
+     */
+    private static final class MappedGraph extends Graph {
+        private final IntBuffer offsets;
+        private final IntBuffer targets;
+        private final IntBuffer weights;
+
+        MappedGraph(int numVertices, IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+            super(numVertices, false);
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        @Override
+        public void addEdge(int src, int dest, int weight) {
+            throw new UnsupportedOperationException("Edges of a mapped graph cannot be modified");
+        }
+
+        @Override
+        public int getOutDegree(int vertex) {
+            return offsets.get(vertex + 1) - offsets.get(vertex);
+        }
+
+        @Override
+        public int getNeighbor(int vertex, int index) {
+            return targets.get(offsets.get(vertex) + index);
+        }
+
+        @Override
+        public int getWeight(int vertex, int index) {
+            return weights.get(offsets.get(vertex) + index);
+        }
+
+        @Override
+        public long getNumEdges() {
+            return targets.limit();
+        }
+    }
+
+    /**
+     * Writes a graph as a binary snapshot: a versioned header followed by the raw CSR offset, target and
+     * weight arrays. The arrays are encoded into a few reusable direct buffers that are written together
+     * with one gather write per round, so any Graph can be saved without building its CSR arrays first.
+     *
+     * @param graph the graph to save
+     * @param file the snapshot file, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Graph graph, Path file) throws IOException {
+        int numVertices = graph.getNumVertices();
+        long numEdges = graph.getNumEdges();
+        if (numEdges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshots hold at most " + Integer.MAX_VALUE + " edges");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(VERSION).putInt(numVertices).putLong(numEdges).putInt(0).putInt(0).flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            SectionWriter writer = new SectionWriter(channel);
+            int offset = 0;
+            writer.putInt(0);
+            for (int v = 0; v < numVertices; v++) {
+                offset += graph.getOutDegree(v);
+                writer.putInt(offset);
+            }
+            writer.pad();
+            for (int v = 0; v < numVertices; v++) {
+                for (int edge = 0; edge < graph.getOutDegree(v); edge++) {
+                    writer.putInt(graph.getNeighbor(v, edge));
+                }
+            }
+            writer.pad();
+            for (int v = 0; v < numVertices; v++) {
+                for (int edge = 0; edge < graph.getOutDegree(v); edge++) {
+                    writer.putInt(graph.getWeight(v, edge));
+                }
+            }
+            writer.pad();
+            writer.flush();
+        }
+    }
+
+    /**
+     * Fills a ring of direct buffers and writes all of them with one gather write when they are full.
+     */
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer[] blocks = new ByteBuffer[BLOCKS_PER_WRITE];
+        private int current;
+        private long written;
+
+        SectionWriter(FileChannel channel) {
+            this.channel = channel;
+            for (int i = 0; i < blocks.length; i++) {
+                blocks[i] = ByteBuffer.allocateDirect(BLOCK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            written = HEADER_BYTES;
+        }
+
+        void putInt(int value) throws IOException {
+            if (!blocks[current].hasRemaining()) {
+                current++;
+                if (current == blocks.length) {
+                    flush();
+                }
+            }
+            blocks[current].putInt(value);
+        }
+
+        /**
+         * Pads the current section to a multiple of 8 bytes.
+         */
+        void pad() throws IOException {
+            long position = written;
+            for (int i = 0; i <= Math.min(current, blocks.length - 1); i++) {
+                position += blocks[i].position();
+            }
+            if (position % 8 != 0) {
+                putInt(0);
+            }
+        }
+
+        void flush() throws IOException {
+            int used = Math.min(current + 1, blocks.length);
+            for (int i = 0; i < used; i++) {
+                blocks[i].flip();
+            }
+            long remaining = 0;
+            for (int i = 0; i < used; i++) {
+                remaining += blocks[i].remaining();
+            }
+            while (remaining > 0) {
+                long count = channel.write(blocks, 0, used);
+                remaining -= count;
+                written += count;
+            }
+            for (ByteBuffer block : blocks) {
+                block.clear();
+            }
+            current = 0;
+        }
+    }
+
+    /**
+     * Opens a snapshot written by write(). The three arrays are memory-mapped and wrapped as they are, so
+     * opening takes the same few milliseconds whatever the size of the graph. The mapping stays valid
+     * after this method returns and is released when the graph is garbage collected.
+     *
+     * @param file the snapshot file
+     * @return a read-only graph backed by the file
+     * @throws IOException if the file cannot be read or is not a snapshot of a supported version
+     */
+    public static Graph read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getLong() != MAGIC) {
+                throw new IOException(file + " is not a graph snapshot");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported graph snapshot version " + version);
+            }
+            int numVertices = header.getInt();
+            long numEdges = header.getLong();
+            if (numVertices < 0 || numEdges < 0 || numEdges > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt graph snapshot header");
+            }
+
+            long offsetsStart = HEADER_BYTES;
+            long targetsStart = offsetsStart + align((numVertices + 1L) * 4);
+            long weightsStart = targetsStart + align(numEdges * 4);
+            if (channel.size() < weightsStart + numEdges * 4) {
+                throw new IOException("Truncated graph snapshot");
+            }
+            IntBuffer offsets = map(channel, offsetsStart, numVertices + 1L);
+            IntBuffer targets = map(channel, targetsStart, numEdges);
+            IntBuffer weights = map(channel, weightsStart, numEdges);
+            if (offsets.get(0) != 0 || offsets.get(numVertices) != numEdges) {
+                throw new IOException("Corrupt graph snapshot offsets");
+            }
+            return new MappedGraph(numVertices, offsets, targets, weights);
+        }
+    }
+
+    private static IntBuffer map(FileChannel channel, long position, long numInts) throws IOException {
+        if (numInts * 4 > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot sections larger than 2 GB cannot be mapped");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, numInts * 4)
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Converts a graph file in any format GraphFileLoader reads into a snapshot.
+     * Usage: GraphSnapshot input output.csr
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: GraphSnapshot input output.csr");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        Graph graph = GraphFileLoader.load(Paths.get(args[0]));
+        long loaded = System.nanoTime();
+        write(graph, Paths.get(args[1]));
+        System.out.printf("Loaded %d vertices and %d edges in %.2f s, wrote the snapshot in %.2f s%n",
+                graph.getNumVertices(), graph.getNumEdges(), (loaded - start) / 1e9, (System.nanoTime() - loaded) / 1e9);
+    }
+}
@@ -0,0 +1,208 @@
+public class ImplicitGraph extends Graph {
+    /**
+     * The families of procedurally generated graphs.
+     */
+    public enum Topology {
+        GRID, TORUS, HYPERCUBE, RANDOM
+    }
+
+    private final Topology topology;
+    private final int rows;
+    private final int cols;
+    private final int dimensions;
+    private final int degree;
+    private final long seed;
+    private final int minWeight;
+    private final int maxWeight;
+
+    /**
+     * ImplicitGraph is a Graph whose neighbors and edge weights are computed on demand from the vertex ID
+     * and a seed instead of being stored, so a graph with a billion vertices takes no memory beyond this object.
+     * Edge weights are derived from both endpoints, so the edges u -> v and v -> u always share a weight.
+     *
+     * @param topology the family of graph to generate
+     * @param numVertices the number of vertices in the graph
+     * @param rows the number of rows of a GRID or TORUS
+     * @param cols the number of columns of a GRID or TORUS
+     * @param dimensions the dimension of a HYPERCUBE
+     * @param degree the out-degree of every vertex of a RANDOM graph
+     * @param seed the seed that all neighbors and weights are derived from
+     * @param minWeight the smallest edge weight (inclusive)
+     * @param maxWeight the largest edge weight (exclusive)
+     */
+    private ImplicitGraph(Topology topology, int numVertices, int rows, int cols, int dimensions, int degree,
+                          long seed, int minWeight, int maxWeight) {
+        super(numVertices, false);
+        if (minWeight >= maxWeight) {
+            throw new IllegalArgumentException("minWeight must be smaller than maxWeight");
+        }
+        this.topology = topology;
+        this.rows = rows;
+        this.cols = cols;
+        this.dimensions = dimensions;
+        this.degree = degree;
+        this.seed = seed;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Creates a rows x cols grid in which every vertex links to its horizontal and vertical neighbors.
+     */
+    public static ImplicitGraph grid(int rows, int cols, long seed, int minWeight, int maxWeight) {
+        checkDimensions(rows, cols);
+        return new ImplicitGraph(Topology.GRID, checkedSize((long) rows * cols), rows, cols, 0, 0,
+                seed, minWeight, maxWeight);
+    }
+
+    /**
+     * Creates a rows x cols grid whose borders wrap around, so every vertex has exactly four neighbors. Both
+     * dimensions must be at least 3: with 1 a vertex wraps around to itself, and with 2 it reaches the same
+     * neighbor both ways.
+     */
+    public static ImplicitGraph torus(int rows, int cols, long seed, int minWeight, int maxWeight) {
+        if (rows < 3 || cols < 3) {
+            throw new IllegalArgumentException("Invalid torus dimensions, both must be at least 3: "
+                    + rows + " x " + cols);
+        }
+        return new ImplicitGraph(Topology.TORUS, checkedSize((long) rows * cols), rows, cols, 0, 0,
+                seed, minWeight, maxWeight);
+    }
+
+    /**
+     * Creates a hypercube of the given dimension, in which vertices differing in exactly one bit are linked.
+     */
+    public static ImplicitGraph hypercube(int dimensions, long seed, int minWeight, int maxWeight) {
+        if (dimensions < 0 || dimensions > 30) {
+            throw new IllegalArgumentException("Invalid hypercube dimension: " + dimensions);
+        }
+        return new ImplicitGraph(Topology.HYPERCUBE, 1 << dimensions, 0, 0, dimensions, 0,
+                seed, minWeight, maxWeight);
+    }
+
+    /**
+     * Creates a random graph where each vertex has degree out-edges whose destinations are chosen by hashing.
+     */
+    public static ImplicitGraph random(int numVertices, int degree, long seed, int minWeight, int maxWeight) {
+        if (degree < 0 || (numVertices < 2 && degree > 0)) {
+            throw new IllegalArgumentException("Invalid degree: " + degree);
+        }
+        return new ImplicitGraph(Topology.RANDOM, checkedSize(numVertices), 0, 0, 0, degree,
+                seed, minWeight, maxWeight);
+    }
+
+    @Override
+    public void addEdge(int src, int dest, int weight) {
+        throw new UnsupportedOperationException("Edges of an implicit graph cannot be modified");
+    }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        switch (topology) {
+            case GRID:
+                int row = vertex / cols;
+                int col = vertex % cols;
+                return (col + 1 < cols ? 1 : 0) + (row + 1 < rows ? 1 : 0) + (col > 0 ? 1 : 0) + (row > 0 ? 1 : 0);
+            case TORUS:
+                return 4;
+            case HYPERCUBE:
+                return dimensions;
+            default:
+                return degree;
+        }
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        switch (topology) {
+            case GRID:
+                // Walk right, down, left, up, skipping the directions that leave the grid
+                int row = vertex / cols;
+                int col = vertex % cols;
+                if (col + 1 < cols && index-- == 0) {
+                    return vertex + 1;
+                }
+                if (row + 1 < rows && index-- == 0) {
+                    return vertex + cols;
+                }
+                if (col > 0 && index-- == 0) {
+                    return vertex - 1;
+                }
+                if (row > 0 && index == 0) {
+                    return vertex - cols;
+                }
+                throw new IndexOutOfBoundsException("Invalid edge index for vertex " + vertex);
+            case TORUS:
+                int r = vertex / cols;
+                int c = vertex % cols;
+                if (index == 0) {
+                    return r * cols + (c + 1) % cols;
+                } else if (index == 1) {
+                    return ((r + 1) % rows) * cols + c;
+                } else if (index == 2) {
+                    return r * cols + (c + cols - 1) % cols;
+                } else {
+                    return ((r + rows - 1) % rows) * cols + c;
+                }
+            case HYPERCUBE:
+                return vertex ^ (1 << index);
+            default:
+                int n = getNumVertices();
+                int dest = (int) Long.remainderUnsigned(mix(seed ^ ((long) vertex << 32 | index)), n);
+                // Avoid self loops by moving to the next vertex
+                return dest == vertex ? (dest + 1) % n : dest;
+        }
+    }
+
+    @Override
+    public int getWeight(int vertex, int index) {
+        int neighbor = getNeighbor(vertex, index);
+        long key = (long) Math.min(vertex, neighbor) << 32 | Math.max(vertex, neighbor);
+        return minWeight + (int) Long.remainderUnsigned(mix(seed + key), maxWeight - minWeight);
+    }
+
+    @Override
+    public long getNumEdges() {
+        switch (topology) {
+            case GRID:
+                return 2L * (rows * (cols - 1L) + cols * (rows - 1L));
+            case TORUS:
+                return 4L * getNumVertices();
+            case HYPERCUBE:
+                return (long) dimensions * getNumVertices();
+            default:
+                return (long) degree * getNumVertices();
+        }
+    }
+
+    /**
+     * Returns the family of graph this is.
+     * @return the topology
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * SplitMix64 finalizer, used to turn a vertex/edge key into well distributed random bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Both dimensions have to be positive; two negative ones would otherwise make a valid looking size
+    private static void checkDimensions(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Invalid grid dimensions: " + rows + " x " + cols);
+        }
+    }
+
+    private static int checkedSize(long numVertices) {
+        if (numVertices <= 0 || numVertices > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid number of vertices: " + numVertices);
+        }
+        return (int) numVertices;
+    }
+}
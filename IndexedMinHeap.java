@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+public class IndexedMinHeap {
+    private final int[] heap;
+    // Position of each vertex in heap, or -1 when it is not queued
+    private final int[] positions;
+    private final int[] keys;
+    private int size;
+
+    /**
+     * IndexedMinHeap is a binary min-heap of vertices ordered by an int key, stored in three int arrays
+     * allocated once. Each vertex is queued at most once and lowering its key moves it up in place, so
+     * unlike a PriorityQueue of (vertex, distance) pairs it neither boxes nor keeps outdated entries, and
+     * it can be reused across runs without allocating.
+     *
+     * @param numVertices the vertices that can be queued are 0 to numVertices - 1
+     */
+    public IndexedMinHeap(int numVertices) {
+        heap = new int[numVertices];
+        positions = new int[numVertices];
+        keys = new int[numVertices];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Queues a vertex with the given key, or lowers its key if it is queued with a higher one.
+     *
+     * @return true if the vertex was queued or its key lowered
+     */
+    public boolean insertOrDecrease(int vertex, int key) {
+        int position = positions[vertex];
+        if (position < 0) {
+            position = size++;
+            heap[position] = vertex;
+            positions[vertex] = position;
+        } else if (key >= keys[vertex]) {
+            return false;
+        }
+        keys[vertex] = key;
+        siftUp(position);
+        return true;
+    }
+
+    /**
+     * Removes and returns the vertex with the smallest key.
+     *
+     * @throws IllegalStateException if the heap is empty
+     */
+    public int pollMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every queued vertex, in time proportional to how many there are.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int vertex = heap[position];
+        int key = keys[vertex];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentVertex = heap[parent];
+            if (keys[parentVertex] <= key) {
+                break;
+            }
+            heap[position] = parentVertex;
+            positions[parentVertex] = position;
+            position = parent;
+        }
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+
+    private void siftDown(int position) {
+        int vertex = heap[position];
+        int key = keys[vertex];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            int childVertex = heap[child];
+            if (key <= keys[childVertex]) {
+                break;
+            }
+            heap[position] = childVertex;
+            positions[childVertex] = position;
+            position = child;
+        }
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+}
@@ -0,0 +1,152 @@
+public class JohnsonVisualizer extends GraphPanel {
+    // Potentials from Bellman-Ford; w(u, v) + h[u] - h[v] is never negative
+    private final int[] potentials;
+    // Reweighted distances of the current Dijkstra source, reused for every source
+    private final int[] reweighted;
+    private final boolean[] settled;
+    private final IndexedMinHeap heap;
+
+    /**
+     * JohnsonVisualizer animates Johnson's all-pairs shortest paths: Bellman-Ford from a virtual vertex
+     * joined to every vertex by a 0 edge gives potentials that make all weights non-negative, then
+     * Dijkstra's algorithm runs from every vertex on the reweighted graph. The table is the distance matrix,
+     * filled one row per source, as Floyd-Warshall's is filled one pivot at a time.
+     *
+     * @param graph The graph object that is being traversed.
+     */
+    public JohnsonVisualizer(Graph graph) {
+        super(graph, graph.getNumVertices(), TableView.matrix(graph.getNumVertices()));
+        potentials = new int[graph.getNumVertices()];
+        reweighted = new int[graph.getNumVertices()];
+        settled = new boolean[graph.getNumVertices()];
+        heap = new IndexedMinHeap(graph.getNumVertices());
+        resetGraph();
+    }
+
+    /**
+     * resetGraph method is used to reset the color of all vertices to white and the matrix to 0.
+     */
+    public void resetGraph() {
+        stateBuffer.reset(0);
+    }
+
+    /**
+     * traverse method is used to compute the distances between all pairs of vertices.
+     */
+    public void traverse() {
+        resetGraph();
+        startRun("Johnson");
+        int numVertices = graph.getNumVertices();
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                stateBuffer.setValue(i, j, i == j ? 0 : Integer.MAX_VALUE);
+            }
+        }
+
+        if (!computePotentials()) {
+            counters.finish();
+            scheduler.finish();
+            showResult("Negative weight cycle detected. " +
+                    "Please try adjusting your parameters to make this less probable.");
+            return;
+        }
+
+        // A stopped run ends between sources, with the rows of the sources done so far
+        for (int source = 0; source < numVertices && control.checkpoint(); source++) {
+            counters.startRound();
+            dijkstra(source);
+        }
+        counters.finish();
+        scheduler.finish();
+    }
+
+    /**
+     * Bellman-Ford from the virtual vertex, whose 0 edges make every potential start at 0. Each pass is one
+     * round; when an edge lowers a potential its two ends are shown gray for one step, and edges that do
+     * not are relaxed without a step. A stopped run ends between passes, and traverse then stops before the
+     * first source.
+     *
+     * @return false if there is a negative cycle
+     */
+    private boolean computePotentials() {
+        int numVertices = graph.getNumVertices();
+        for (int i = 0; i < numVertices; i++) {
+            potentials[i] = 0;
+        }
+        for (int pass = 0; pass <= numVertices && control.checkpoint(); pass++) {
+            counters.startRound();
+            boolean changed = false;
+            for (int u = 0; u < numVertices; u++) {
+                for (int edge = 0; edge < graph.getOutDegree(u); edge++) {
+                    int v = graph.getNeighbor(u, edge);
+                    counters.increment(AlgorithmCounters.Counter.EDGES_SCANNED);
+                    counters.increment(AlgorithmCounters.Counter.RELAXATIONS_ATTEMPTED);
+                    if (potentials[u] + graph.getWeight(u, edge) < potentials[v]) {
+                        if (pass == numVertices) {
+                            return false;
+                        }
+                        potentials[v] = potentials[u] + graph.getWeight(u, edge);
+                        counters.increment(AlgorithmCounters.Counter.RELAXATIONS_SUCCEEDED);
+                        changed = true;
+                        byte oldColor1 = stateBuffer.getState(u);
+                        byte oldColor2 = stateBuffer.getState(v);
+                        stateBuffer.setState(u, VertexStateBuffer.GRAY);
+                        stateBuffer.setState(v, VertexStateBuffer.GRAY);
+                        scheduler.step();
+                        stateBuffer.setState(u, oldColor1);
+                        stateBuffer.setState(v, oldColor2);
+                    }
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dijkstra's algorithm from one source on the reweighted edges, writing the source's row of the matrix.
+     * Settled vertices are black and queued ones gray; the colors are cleared again for the next source.
+     */
+    private void dijkstra(int source) {
+        int numVertices = graph.getNumVertices();
+        for (int i = 0; i < numVertices; i++) {
+            reweighted[i] = Integer.MAX_VALUE;
+            settled[i] = false;
+        }
+        heap.clear();
+        reweighted[source] = 0;
+        heap.insertOrDecrease(source, 0);
+        counters.increment(AlgorithmCounters.Counter.HEAP_PUSHES);
+
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            counters.increment(AlgorithmCounters.Counter.HEAP_POPS);
+            counters.increment(AlgorithmCounters.Counter.VERTICES_VISITED);
+            settled[u] = true;
+            stateBuffer.setState(u, VertexStateBuffer.BLACK);
+            stateBuffer.setValue(source, u, reweighted[u] - potentials[source] + potentials[u]);
+            scheduler.step();
+            for (int edge = 0; edge < graph.getOutDegree(u); edge++) {
+                int v = graph.getNeighbor(u, edge);
+                int weight = graph.getWeight(u, edge) + potentials[u] - potentials[v];
+                counters.increment(AlgorithmCounters.Counter.EDGES_SCANNED);
+                counters.increment(AlgorithmCounters.Counter.RELAXATIONS_ATTEMPTED);
+                if (!settled[v] && reweighted[u] + weight < reweighted[v]) {
+                    reweighted[v] = reweighted[u] + weight;
+                    counters.increment(AlgorithmCounters.Counter.RELAXATIONS_SUCCEEDED);
+                    if (heap.insertOrDecrease(v, reweighted[v])) {
+                        counters.increment(AlgorithmCounters.Counter.HEAP_PUSHES);
+                    }
+                    stateBuffer.setState(v, VertexStateBuffer.GRAY);
+                }
+            }
+        }
+        for (int i = 0; i < numVertices; i++) {
+            if (reweighted[i] != Integer.MAX_VALUE) {
+                stateBuffer.setState(i, VertexStateBuffer.WHITE);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+
+public class MSTVisualizer extends GraphPanel {
+    // The edges in flat arrays, numbered as MinimumSpanningForest numbers them, so ties are broken alike
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final int[] edgeWeights;
+    // Component label of every vertex: the lowest vertex of its tree
+    private final int[] components;
+    // Weight and edge number of each component's cheapest edge in the current round
+    private final long[] cheapest;
+    // Forest edges, and each vertex's tree edges as a linked list for rooting the trees at the end
+    private final int[] forest;
+    private final int[] firstTreeEdge;
+    private final int[] nextTreeEdge;
+    private final int[] queue;
+
+    /**
+     * MSTVisualizer animates Boruvka's algorithm for a minimum spanning forest, with edges taken as
+     * undirected. Every round each tree picks its cheapest edge to another tree and all picked edges are
+     * added, until no edge joins two trees. The table shows each vertex's tree, named after its lowest vertex;
+     * at the end every tree is rooted at that vertex and the table shows each vertex's parent and the weight
+     * of the edge to it. Vertices are white until a tree edge reaches them, the edge being scanned or added
+     * is black, and vertices in a tree are gray.
+     *
+     * @param graph The graph object whose spanning forest is computed.
+     */
+    public MSTVisualizer(Graph graph) {
+        super(graph, 3, TableView.list(graph.getNumVertices(), new String[]{"Tree", "Parent", "Weight"}, "-"));
+        int numVertices = graph.getNumVertices();
+        int numEdges = (int) graph.getNumEdges();
+        edgeSources = new int[numEdges];
+        edgeTargets = new int[numEdges];
+        edgeWeights = new int[numEdges];
+        int edge = 0;
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            for (int index = 0; index < graph.getOutDegree(vertex); index++) {
+                edgeSources[edge] = vertex;
+                edgeTargets[edge] = graph.getNeighbor(vertex, index);
+                edgeWeights[edge] = graph.getWeight(vertex, index);
+                edge++;
+            }
+        }
+        components = new int[numVertices];
+        cheapest = new long[numVertices];
+        forest = new int[Math.max(0, numVertices - 1)];
+        firstTreeEdge = new int[numVertices];
+        nextTreeEdge = new int[2 * forest.length];
+        queue = new int[numVertices];
+        resetGraph();
+    }
+
+    /**
+     * resetGraph method is used to reset the color of all vertices to white and their values to 0.
+     */
+    public void resetGraph() {
+        stateBuffer.reset(0);
+    }
+
+    /**
+     * traverse method is used to compute the minimum spanning forest.
+     */
+    public void traverse() {
+        resetGraph();
+        startRun("Boruvka");
+        int numVertices = graph.getNumVertices();
+        for (int i = 0; i < numVertices; i++) {
+            components[i] = i;
+            stateBuffer.setValue(i, 0, i);
+            stateBuffer.setValue(i, 1, Integer.MAX_VALUE);
+            stateBuffer.setValue(i, 2, Integer.MAX_VALUE);
+        }
+
+        // A stopped run ends between rounds, and the trees found so far are still rooted
+        int forestSize = 0;
+        while (control.checkpoint()) {
+            counters.startRound();
+            if (!findCheapestEdges()) {
+                break;
+            }
+            for (int vertex = 0; vertex < numVertices; vertex++) {
+                if (components[vertex] == vertex && cheapest[vertex] != Long.MAX_VALUE) {
+                    int edge = (int) cheapest[vertex];
+                    // The trees at both ends may have picked this edge, or merged since
+                    if (components[edgeSources[edge]] != components[edgeTargets[edge]]) {
+                        addEdge(edge);
+                        forest[forestSize++] = edge;
+                    }
+                }
+            }
+        }
+        rootTrees(forestSize);
+        counters.finish();
+        scheduler.finish();
+    }
+
+    /**
+     * Scans every edge once, showing each vertex black while its edges are scanned, and keeps the cheapest
+     * edge of every tree to another tree. Equal weights are ordered by edge number.
+     *
+     * @return false if no edge joins two trees, so the forest is complete
+     */
+    private boolean findCheapestEdges() {
+        Arrays.fill(cheapest, Long.MAX_VALUE);
+        boolean found = false;
+        int edge = 0;
+        for (int vertex = 0; vertex < graph.getNumVertices(); vertex++) {
+            byte oldColor = stateBuffer.getState(vertex);
+            stateBuffer.setState(vertex, VertexStateBuffer.BLACK);
+            scheduler.step();
+            for (int index = 0; index < graph.getOutDegree(vertex); index++, edge++) {
+                counters.increment(AlgorithmCounters.Counter.EDGES_SCANNED);
+                int tree1 = components[edgeSources[edge]];
+                int tree2 = components[edgeTargets[edge]];
+                if (tree1 != tree2) {
+                    long key = (long) edgeWeights[edge] << 32 | edge;
+                    cheapest[tree1] = Math.min(cheapest[tree1], key);
+                    cheapest[tree2] = Math.min(cheapest[tree2], key);
+                    found = true;
+                }
+            }
+            stateBuffer.setState(vertex, oldColor);
+        }
+        return found;
+    }
+
+    /**
+     * Adds a forest edge: its ends are shown black, then the tree with the higher label takes the lower one.
+     */
+    private void addEdge(int edge) {
+        int source = edgeSources[edge];
+        int target = edgeTargets[edge];
+        if (stateBuffer.getState(source) == VertexStateBuffer.WHITE) {
+            counters.increment(AlgorithmCounters.Counter.VERTICES_VISITED);
+        }
+        if (stateBuffer.getState(target) == VertexStateBuffer.WHITE) {
+            counters.increment(AlgorithmCounters.Counter.VERTICES_VISITED);
+        }
+        stateBuffer.setState(source, VertexStateBuffer.BLACK);
+        stateBuffer.setState(target, VertexStateBuffer.BLACK);
+        scheduler.step();
+        int label = Math.min(components[source], components[target]);
+        int absorbed = Math.max(components[source], components[target]);
+        for (int vertex = 0; vertex < graph.getNumVertices(); vertex++) {
+            if (components[vertex] == absorbed) {
+                components[vertex] = label;
+                stateBuffer.setValue(vertex, 0, label);
+            }
+        }
+        stateBuffer.setState(source, VertexStateBuffer.GRAY);
+        stateBuffer.setState(target, VertexStateBuffer.GRAY);
+        scheduler.step();
+    }
+
+    /**
+     * Roots every tree at its label with a breadth-first search over the forest edges and fills in the
+     * parent and edge weight of every other vertex.
+     */
+    private void rootTrees(int forestSize) {
+        int numVertices = graph.getNumVertices();
+        Arrays.fill(firstTreeEdge, -1);
+        // Tree edge i is listed at both ends, as 2i at its source and 2i + 1 at its target
+        for (int i = 0; i < forestSize; i++) {
+            nextTreeEdge[2 * i] = firstTreeEdge[edgeSources[forest[i]]];
+            firstTreeEdge[edgeSources[forest[i]]] = 2 * i;
+            nextTreeEdge[2 * i + 1] = firstTreeEdge[edgeTargets[forest[i]]];
+            firstTreeEdge[edgeTargets[forest[i]]] = 2 * i + 1;
+        }
+        for (int root = 0; root < numVertices; root++) {
+            if (components[root] != root || firstTreeEdge[root] < 0) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            stateBuffer.setValue(root, 1, Integer.MAX_VALUE);
+            while (head < tail) {
+                int vertex = queue[head++];
+                for (int entry = firstTreeEdge[vertex]; entry >= 0; entry = nextTreeEdge[entry]) {
+                    int edge = forest[entry / 2];
+                    int neighbor = entry % 2 == 0 ? edgeTargets[edge] : edgeSources[edge];
+                    if (neighbor == root || stateBuffer.getValue(neighbor, 1) != Integer.MAX_VALUE) {
+                        continue;
+                    }
+                    stateBuffer.setValue(neighbor, 1, vertex);
+                    stateBuffer.setValue(neighbor, 2, edgeWeights[edge]);
+                    stateBuffer.setState(neighbor, VertexStateBuffer.BLACK);
+                    scheduler.step();
+                    stateBuffer.setState(neighbor, VertexStateBuffer.GRAY);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    public static void visualizeMST(Graph graph) throws Exception {
+        // Create instruction screen
+        MSTVisualizer visualizer = new MSTVisualizer(graph);
+        JFrame frame = new JFrame();
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.getContentPane().add(visualizer);
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(new PlaybackControls(visualizer.getScheduler()));
+        frame.add(buttonPanel, BorderLayout.SOUTH);
+
+        frame.setSize(1000, 1000);
+        frame.pack();
+        frame.setVisible(true);
+
+        // Get the dimensions of the screen
+        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        int width = (int) screenSize.getWidth();
+        int height = (int) screenSize.getHeight();
+
+        // Set the size of the frame to fit the screen
+        frame.setSize(width, height);
+
+        JOptionPane.showInputDialog(null,
+                "Press enter to begin");
+        visualizer.traverse();
+        visualizer.repaint();
+    }
+}
@@ -1,6 +1,14 @@
 import javax.swing.*;
 public class MainMenu {
     public static void main(String[] args) throws Exception {
+        // With arguments, run the headless batch mode; it must not touch Swing, which would start AWT
+        if (args.length > 0) {
+            System.exit(BatchCli.run(args));
+        }
+        showMenu();
+    }
+
+    private static void showMenu() throws Exception {
         // Create instruction screen
         JOptionPane.showMessageDialog(null,
                 "Welcome! This is the Graph Algorithm Visualizer, " +
@@ -12,38 +20,59 @@ public class MainMenu {
                         "input those values.\n"
                         + "Try to keep the number of vertices small and edge density low " +
                         "to visually see the walkthrough better!\n"
+                        + "Zoom with the mouse wheel, drag to pan and double click to reset the view.\n"
                         + "Have fun!", "Instructions", JOptionPane.INFORMATION_MESSAGE);
 
         // Get user input for number of vertices, edge probability, and start vertex
         int numVertices = Integer.parseInt(JOptionPane.showInputDialog(null,
-                "Enter the number of vertices (value must be greater than 0, max of 20):"));
+                "Enter the number of vertices (value must be greater than 0; " +
+                        "use the mouse wheel to zoom and drag to pan on large graphs):"));
         double edgeProbability = Double.parseDouble(JOptionPane.showInputDialog(null,
                 "Enter the edge probability (from 0 to 1):"));
 
         int algoSelection = Integer.parseInt(JOptionPane.showInputDialog(null,
                 "Select the algorithm you would like to visualize (DFS: 1, BFS: 2, Dijkstra's: 3, " +
-                         "Bellman Ford: 4, Floyd-Warshall: 5):"));
+                         "Bellman Ford: 4, Floyd-Warshall: 5, Minimum Spanning Forest: 8),\n" +
+                         "or compare algorithms side by side (Dijkstra's vs Bellman Ford vs SPFA: 6, " +
+                         "Floyd-Warshall vs Johnson: 7):"));
 
-        if (algoSelection == 1) {
-            Graph graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -10, 10);
+        // The graphs are generated in time proportional to their edges, not to numVertices^2, so large sparse
+        // graphs are ready without a wait
+        if ((algoSelection == 5 || algoSelection == 7) && numVertices > TableView.MAX_MATRIX_VERTICES) {
+            JOptionPane.showMessageDialog(null,
+                    "Floyd-Warshall and Johnson show a distance matrix, so they are limited to "
+                            + TableView.MAX_MATRIX_VERTICES + " vertices.",
+                    "Instructions", JOptionPane.INFORMATION_MESSAGE);
+        } else if (algoSelection == 1) {
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, -10, 10);
             DFSVisualizer dfsVisualizer = new DFSVisualizer(graph);
             dfsVisualizer.visualizeDFS(graph);
         } else if (algoSelection == 2) {
-            Graph graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -10, 10);
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, -10, 10);
             BFSVisualizer bfsVisualizer = new BFSVisualizer(graph);
             bfsVisualizer.visualizeBFS(graph);
         } else if (algoSelection == 3) {
-            Graph graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, 1, 10);
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, 1, 10);
             DijkstrasVisualizer dijkstrasVisualizer = new DijkstrasVisualizer(graph);
             dijkstrasVisualizer.visualizeDijkstras(graph);
         } else if (algoSelection == 4) {
-            Graph graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -5, 10);
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, -5, 10);
             BFVisualizer bfVisualizer = new BFVisualizer(graph);
             bfVisualizer.visualizeBF(graph);
         } else if (algoSelection == 5) {
-            Graph graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, -5, 10);
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, -5, 10);
             FWVisualizer fwVisualizer = new FWVisualizer(graph);
             fwVisualizer.visualizeFW(graph);
+        } else if (algoSelection == 6) {
+            // Dijkstra's needs non-negative weights, so all three get the same ones
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, 1, 10);
+            AlgorithmComparison.compare(graph, "dijkstra", "bf", "spfa");
+        } else if (algoSelection == 7) {
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, 1, 10);
+            AlgorithmComparison.compare(graph, "fw", "johnson");
+        } else if (algoSelection == 8) {
+            Graph graph = GraphGenerator.generateSparseRandomGraph(numVertices, edgeProbability, 1, 10);
+            MSTVisualizer.visualizeMST(graph);
         } else {
             JOptionPane.showMessageDialog(null,
                     "Invalid Selection.",
@@ -0,0 +1,284 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+public class MinimumSpanningForest {
+    // Boruvka scans edges and vertices in parallel from this many edges up
+    private static final int PARALLEL_EDGES = 1 << 14;
+    // Kruskal checks its RunControl every this many edges
+    private static final int CHECKPOINT_MASK = 1023;
+    // Cheapest edge of a component that has none yet
+    private static final long NO_EDGE = Long.MAX_VALUE;
+
+    private final int numVertices;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+    private final int numEdges;
+    private final long totalWeight;
+    private final int rounds;
+
+    /**
+     * MinimumSpanningForest computes a minimum spanning tree of every connected part of a graph, with
+     * parallel Boruvka or sequential Kruskal, and holds the result: the edges of the forest and their total
+     * weight. The directed edges of the graph are taken as undirected, so u -> v and v -> u are two
+     * candidates for the same connection. Equal weights are ordered by the position of the edge in the
+     * graph, so both algorithms pick the same forest.
+     */
+    private MinimumSpanningForest(int numVertices, int[] sources, int[] targets, int[] weights, int numEdges,
+                                  int rounds) {
+        this.numVertices = numVertices;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.numEdges = numEdges;
+        this.rounds = rounds;
+        long total = 0;
+        for (int i = 0; i < numEdges; i++) {
+            total += weights[i];
+        }
+        totalWeight = total;
+    }
+
+    /**
+     * The edges of a graph in flat arrays, numbered in the order getNeighbor lists them.
+     */
+    private static final class EdgeList {
+        final int[] sources;
+        final int[] targets;
+        final int[] weights;
+
+        EdgeList(Graph graph) {
+            if (graph.getNumEdges() > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many edges for a spanning forest: " + graph.getNumEdges());
+            }
+            int numEdges = (int) graph.getNumEdges();
+            sources = new int[numEdges];
+            targets = new int[numEdges];
+            weights = new int[numEdges];
+            int edge = 0;
+            for (int vertex = 0; vertex < graph.getNumVertices(); vertex++) {
+                for (int index = 0; index < graph.getOutDegree(vertex); index++) {
+                    sources[edge] = vertex;
+                    targets[edge] = graph.getNeighbor(vertex, index);
+                    weights[edge] = graph.getWeight(vertex, index);
+                    edge++;
+                }
+            }
+        }
+
+        int size() {
+            return sources.length;
+        }
+
+        // Weight in the high half and edge number in the low half, so keys order edges totally
+        long key(int edge) {
+            return (long) weights[edge] << 32 | edge;
+        }
+    }
+
+    /**
+     * Boruvka's algorithm: in every round each component picks its cheapest edge to another component, and
+     * all picked edges are added at once, which at least halves the number of components. The edges are
+     * scanned in parallel, each component's cheapest edge is kept with a compare-and-set minimum, and the
+     * picked edges are merged in parallel through a ConcurrentUnionFind.
+     *
+     * @param graph the graph
+     * @return the minimum spanning forest
+     */
+    public static MinimumSpanningForest boruvka(Graph graph) {
+        return boruvka(graph, null);
+    }
+
+    /**
+     * Boruvka's algorithm that ends after the current round once the control is stopped. The forest then
+     * holds the edges found so far, each of which belongs to the minimum spanning forest.
+     *
+     * @param graph the graph
+     * @param control checked once per round, or null
+     * @return the minimum spanning forest, or part of it
+     */
+    public static MinimumSpanningForest boruvka(Graph graph, RunControl control) {
+        int numVertices = graph.getNumVertices();
+        EdgeList edges = new EdgeList(graph);
+        ConcurrentUnionFind components = new ConcurrentUnionFind(numVertices);
+        // Root of every vertex's component as of the last round, so edges are scanned with plain array reads
+        int[] labels = new int[numVertices];
+        Arrays.setAll(labels, vertex -> vertex);
+        AtomicLongArray cheapest = new AtomicLongArray(numVertices);
+        // Forest edges in the order they were merged; forestSize is only advanced between the parallel phases
+        int[] forest = new int[Math.max(0, numVertices - 1)];
+        boolean[] merged = new boolean[edges.size()];
+        // Edges that still join two components, compacted after every round
+        int[] live = IntStream.range(0, edges.size()).filter(e -> edges.sources[e] != edges.targets[e]).toArray();
+        int numLive = live.length;
+        int forestSize = 0;
+        int rounds = 0;
+
+        while (numLive > 0 && (control == null || control.checkpoint())) {
+            rounds++;
+            boolean parallel = numLive >= PARALLEL_EDGES;
+            int[] roundEdges = live;
+            range(numVertices, parallel).forEach(vertex -> cheapest.set(vertex, NO_EDGE));
+            range(numLive, parallel).forEach(i -> {
+                int edge = roundEdges[i];
+                int root1 = labels[edges.sources[edge]];
+                int root2 = labels[edges.targets[edge]];
+                if (root1 != root2) {
+                    long key = edges.key(edge);
+                    lowerTo(cheapest, root1, key);
+                    lowerTo(cheapest, root2, key);
+                }
+            });
+            // Picked edges never form a cycle, as keys are distinct; an edge picked by both of its
+            // components is merged by whichever thread gets to it first
+            range(numVertices, parallel).forEach(vertex -> {
+                long key = cheapest.get(vertex);
+                if (key != NO_EDGE) {
+                    int edge = (int) key;
+                    if (components.union(edges.sources[edge], edges.targets[edge])) {
+                        merged[edge] = true;
+                    }
+                }
+            });
+            range(numVertices, parallel).forEach(vertex -> labels[vertex] = components.find(vertex));
+
+            int kept = 0;
+            for (int i = 0; i < numLive; i++) {
+                int edge = live[i];
+                if (merged[edge]) {
+                    forest[forestSize++] = edge;
+                } else if (labels[edges.sources[edge]] != labels[edges.targets[edge]]) {
+                    live[kept++] = edge;
+                }
+            }
+            numLive = kept;
+        }
+        return collect(numVertices, edges, forest, forestSize, rounds);
+    }
+
+    /**
+     * Kruskal's algorithm: the edges are sorted by weight with a parallel sort and added in that order when
+     * they join two trees, which a sequential union-find with path halving and union by size decides.
+     *
+     * @param graph the graph
+     * @return the minimum spanning forest
+     */
+    public static MinimumSpanningForest kruskal(Graph graph) {
+        return kruskal(graph, null);
+    }
+
+    /**
+     * Kruskal's algorithm that ends early once the control is stopped, with the edges added so far.
+     *
+     * @param graph the graph
+     * @param control checked every 1024 edges, or null
+     * @return the minimum spanning forest, or part of it
+     */
+    public static MinimumSpanningForest kruskal(Graph graph, RunControl control) {
+        int numVertices = graph.getNumVertices();
+        EdgeList edges = new EdgeList(graph);
+        long[] keys = new long[edges.size()];
+        Arrays.setAll(keys, edges::key);
+        Arrays.parallelSort(keys);
+
+        int[] parents = new int[numVertices];
+        int[] sizes = new int[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+        int[] forest = new int[Math.max(0, numVertices - 1)];
+        int forestSize = 0;
+        for (int i = 0; i < keys.length && forestSize < forest.length; i++) {
+            if ((i & CHECKPOINT_MASK) == 0 && control != null && !control.checkpoint()) {
+                break;
+            }
+            int edge = (int) keys[i];
+            int root1 = find(parents, edges.sources[edge]);
+            int root2 = find(parents, edges.targets[edge]);
+            if (root1 == root2) {
+                continue;
+            }
+            if (sizes[root1] < sizes[root2]) {
+                int swap = root1;
+                root1 = root2;
+                root2 = swap;
+            }
+            parents[root2] = root1;
+            sizes[root1] += sizes[root2];
+            forest[forestSize++] = edge;
+        }
+        return collect(numVertices, edges, forest, forestSize, 1);
+    }
+
+    private static IntStream range(int end, boolean parallel) {
+        IntStream range = IntStream.range(0, end);
+        return parallel ? range.parallel() : range;
+    }
+
+    private static void lowerTo(AtomicLongArray cheapest, int component, long key) {
+        long current = cheapest.get(component);
+        while (key < current && !cheapest.compareAndSet(component, current, key)) {
+            current = cheapest.get(component);
+        }
+    }
+
+    private static int find(int[] parents, int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    private static MinimumSpanningForest collect(int numVertices, EdgeList edges, int[] forest, int forestSize,
+                                                 int rounds) {
+        int[] sources = new int[forestSize];
+        int[] targets = new int[forestSize];
+        int[] weights = new int[forestSize];
+        for (int i = 0; i < forestSize; i++) {
+            sources[i] = edges.sources[forest[i]];
+            targets[i] = edges.targets[forest[i]];
+            weights[i] = edges.weights[forest[i]];
+        }
+        return new MinimumSpanningForest(numVertices, sources, targets, weights, forestSize, rounds);
+    }
+
+    /**
+     * Returns the number of edges in the forest, numVertices minus the number of trees.
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    public int getSource(int edge) {
+        return sources[edge];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Returns the number of trees, one per connected part of the graph including isolated vertices.
+     */
+    public int getNumTrees() {
+        return numVertices - numEdges;
+    }
+
+    /**
+     * Returns how many Boruvka rounds the forest took, or 1 for Kruskal's single pass.
+     */
+    public int getRounds() {
+        return rounds;
+    }
+}
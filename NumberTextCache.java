@@ -0,0 +1,56 @@
+import java.awt.*;
+import java.util.Arrays;
+
+public class NumberTextCache {
+    private static final int MIN_CACHED = -1024;
+    private static final int MAX_CACHED = 1 << 16;
+
+    private final String[] strings;
+    private final int[] widths;
+    private Font widthFont;
+
+    /**
+     * NumberTextCache keeps the String and the pixel width of the small integers that make up almost all
+     * labels (vertex numbers, weights, distances), so they are formatted and measured once instead of on
+     * every frame. Numbers outside the cached range are formatted each time. Event Dispatch Thread only.
+     */
+    public NumberTextCache() {
+        strings = new String[MAX_CACHED - MIN_CACHED];
+        widths = new int[MAX_CACHED - MIN_CACHED];
+    }
+
+    /**
+     * Returns the decimal text of a number.
+     */
+    public String text(int value) {
+        if (value < MIN_CACHED || value >= MAX_CACHED) {
+            return Integer.toString(value);
+        }
+        String text = strings[value - MIN_CACHED];
+        if (text == null) {
+            text = Integer.toString(value);
+            strings[value - MIN_CACHED] = text;
+        }
+        return text;
+    }
+
+    /**
+     * Returns the width of the decimal text of a number in the given font. Widths are remembered for
+     * one font at a time.
+     */
+    public int width(int value, FontMetrics fontMetrics) {
+        if (value < MIN_CACHED || value >= MAX_CACHED) {
+            return fontMetrics.stringWidth(Integer.toString(value));
+        }
+        if (!fontMetrics.getFont().equals(widthFont)) {
+            Arrays.fill(widths, 0);
+            widthFont = fontMetrics.getFont();
+        }
+        int width = widths[value - MIN_CACHED];
+        if (width == 0) {
+            width = fontMetrics.stringWidth(text(value));
+            widths[value - MIN_CACHED] = width;
+        }
+        return width;
+    }
+}
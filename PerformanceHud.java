@@ -0,0 +1,162 @@
+import java.awt.*;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+public class PerformanceHud {
+    // How often the counters are sampled and the overlay redrawn while it is shown
+    private static final int SAMPLE_MILLIS = 250;
+    private static final int MARGIN = 10;
+    private static final int PADDING = 6;
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+
+    private final JComponent owner;
+    private final AnimationScheduler scheduler;
+    private final Supplier<AlgorithmCounters> runs;
+    private final Timer sampleTimer;
+    private final long[] counts = new long[AlgorithmCounters.Counter.values().length];
+    private final String[] lines = new String[5];
+    private final Rectangle bounds = new Rectangle();
+
+    // Everything below is only touched on the Event Dispatch Thread
+    private boolean visible;
+    private AlgorithmCounters sampledRun;
+    private long lastSampleNanos;
+    private long lastSteps;
+    private long lastEdgesScanned;
+    private long framesInWindow;
+    private long paintNanosInWindow;
+    private long maxPaintNanosInWindow;
+    private long lastFrameSequence = -1;
+    private long droppedFrames;
+
+    /**
+     * PerformanceHud is the overlay a visualizer draws on top of the graph when it is toggled on (F3). It
+     * shows steps per second, edges scanned, how long frames take to paint, how many published frames were
+     * never painted and the heap usage, so one can tell whether the algorithm or the renderer is the
+     * bottleneck. The algorithm thread is never blocked: its counters are LongAdders and the step count
+     * lives in the scheduler, and both are sampled by a Swing timer a few times per second.
+     *
+     * @param owner the visualizer the overlay is drawn on
+     * @param scheduler the scheduler counting the visualizer's steps
+     * @param runs supplies the counters of the current run, or null before the first run
+     */
+    public PerformanceHud(JComponent owner, AnimationScheduler scheduler, Supplier<AlgorithmCounters> runs) {
+        this.owner = owner;
+        this.scheduler = scheduler;
+        this.runs = runs;
+        sampleTimer = new Timer(SAMPLE_MILLIS, e -> sample());
+        sampleTimer.setCoalesce(true);
+    }
+
+    /**
+     * Shows or hides the overlay. Event Dispatch Thread only.
+     */
+    public void setVisible(boolean visible) {
+        if (this.visible == visible) {
+            return;
+        }
+        this.visible = visible;
+        if (visible) {
+            lastSampleNanos = 0;
+            sample();
+            sampleTimer.start();
+            owner.repaint();
+        } else {
+            sampleTimer.stop();
+            owner.repaint(bounds);
+        }
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Records a painted frame. Called by paintComponent after the frame is drawn and before the overlay.
+     *
+     * @param frame the vertex state that was painted
+     * @param stale whether the frame was older than the latest published state
+     * @param paintNanos how long painting the frame took
+     */
+    public void framePainted(VertexStateBuffer.Snapshot frame, boolean stale, long paintNanos) {
+        framesInWindow++;
+        paintNanosInWindow += paintNanos;
+        maxPaintNanosInWindow = Math.max(maxPaintNanosInWindow, paintNanos);
+
+        // Each publish advances the sequence by 2, so a bigger jump means frames were published but never shown
+        long sequence = frame.getSequence();
+        if (lastFrameSequence >= 0 && sequence > lastFrameSequence + 2) {
+            droppedFrames += (sequence - lastFrameSequence) / 2 - 1;
+        }
+        if (stale) {
+            droppedFrames++;
+        }
+        lastFrameSequence = Math.max(lastFrameSequence, sequence);
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        double seconds = (now - lastSampleNanos) / 1e9;
+        long steps = scheduler.getStepCount();
+        AlgorithmCounters run = runs.get();
+        if (run != null) {
+            run.snapshot(counts);
+        }
+        long edgesScanned = run == null ? 0 : counts[AlgorithmCounters.Counter.EDGES_SCANNED.ordinal()];
+        if (run != sampledRun) {
+            sampledRun = run;
+            lastEdgesScanned = 0;
+        }
+
+        double stepsPerSecond = lastSampleNanos == 0 ? 0 : (steps - lastSteps) / seconds;
+        double edgesPerSecond = lastSampleNanos == 0 ? 0 : (edgesScanned - lastEdgesScanned) / seconds;
+        double averagePaintMillis = framesInWindow == 0 ? 0 : paintNanosInWindow / 1e6 / framesInWindow;
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        lines[0] = String.format("Steps/s: %,.0f (%,d total)", stepsPerSecond, steps);
+        lines[1] = String.format("Edges scanned: %,d (%,.0f/s)", edgesScanned, edgesPerSecond);
+        lines[2] = String.format("Paint: %.2f ms avg, %.2f ms max, %.0f fps", averagePaintMillis,
+                maxPaintNanosInWindow / 1e6, lastSampleNanos == 0 ? 0 : framesInWindow / seconds);
+        lines[3] = String.format("Dropped frames: %,d", droppedFrames);
+        lines[4] = String.format("Heap: %,d / %,d MB", heapUsed >> 20, runtime.maxMemory() >> 20);
+
+        lastSampleNanos = now;
+        lastSteps = steps;
+        lastEdgesScanned = edgesScanned;
+        framesInWindow = 0;
+        paintNanosInWindow = 0;
+        maxPaintNanosInWindow = 0;
+        owner.repaint(bounds);
+    }
+
+    /**
+     * Draws the overlay in the top left corner if it is shown. Its area is remembered so the next sample
+     * only repaints that part of the visualizer.
+     *
+     * @param g the Graphics object to draw on, in screen coordinates
+     */
+    public void paint(Graphics2D g) {
+        if (!visible) {
+            return;
+        }
+        FontMetrics metrics = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, metrics.stringWidth(line));
+        }
+        int lineHeight = metrics.getHeight();
+        // The box only grows, so the area the next sample repaints always covers it
+        bounds.setBounds(MARGIN, MARGIN, Math.max(bounds.width, width + 2 * PADDING),
+                lines.length * lineHeight + 2 * PADDING);
+
+        g.setColor(BACKGROUND);
+        g.fill(bounds);
+        g.setColor(Color.WHITE);
+        int y = bounds.y + PADDING + metrics.getAscent();
+        for (String line : lines) {
+            g.drawString(line, bounds.x + PADDING, y);
+            y += lineHeight;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+import javax.swing.*;
+
+public class PlaybackControls extends JPanel {
+    /**
+     * PlaybackControls is the row of buttons under a visualizer that pauses, resumes, speeds up,
+     * fast-forwards and stops the animation of the running algorithm.
+     *
+     * @param scheduler the scheduler pacing the visualizer's algorithm
+     */
+    public PlaybackControls(AnimationScheduler scheduler) {
+        JButton pauseButton = new JButton("Pause");
+        pauseButton.addActionListener(e -> {
+            if (scheduler.isPaused()) {
+                scheduler.resume();
+                pauseButton.setText("Pause");
+            } else {
+                scheduler.pause();
+                pauseButton.setText("Resume");
+            }
+        });
+
+        JToggleButton fastForwardButton = new JToggleButton("Fast Forward");
+        fastForwardButton.addActionListener(e -> scheduler.setFastForward(fastForwardButton.isSelected()));
+
+        // The run ends at its next checkpoint and shows its partial result; the next run can be stopped again
+        JButton stopButton = new JButton("Stop");
+        stopButton.addActionListener(e -> {
+            scheduler.getRunControl().cancel();
+            stopButton.setEnabled(false);
+        });
+        scheduler.addRunStartListener(() -> SwingUtilities.invokeLater(() -> stopButton.setEnabled(true)));
+
+        SpinnerNumberModel speedModel = new SpinnerNumberModel(scheduler.getStepsPerSecond(), 0.25, 100000.0, 1.0);
+        JSpinner speedSpinner = new JSpinner(speedModel);
+        speedSpinner.addChangeListener(e -> scheduler.setStepsPerSecond(speedModel.getNumber().doubleValue()));
+
+        add(pauseButton);
+        add(fastForwardButton);
+        add(stopButton);
+        add(new JLabel("Steps per second:"));
+        add(speedSpinner);
+    }
+}
@@ -0,0 +1,400 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class QueryService {
+    private static final int DEFAULT_PORT = 8080;
+    // How long a query waits for a scratch set when all of them are in use before it is rejected
+    private static final long SCRATCH_WAIT_MILLIS = 100;
+    private static final int RESPONSE_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Everything one query needs besides the graph: the algorithm's workspace, the result array and the
+     * buffer the response is encoded in.
+     */
+    private static final class Scratch {
+        final GraphAlgorithms.Workspace workspace;
+        final int[] values;
+        final ByteBuffer response;
+
+        Scratch(int numVertices) {
+            workspace = new GraphAlgorithms.Workspace(numVertices);
+            values = new int[numVertices];
+            response = ByteBuffer.allocateDirect(RESPONSE_BUFFER_BYTES);
+        }
+    }
+
+    private final Graph graph;
+    // At most maxScratch scratch sets exist, one per permit; a query holds a permit while it uses one
+    private final int maxScratch;
+    private final Semaphore scratchPermits;
+    private final ConcurrentLinkedQueue<Scratch> idleScratch = new ConcurrentLinkedQueue<>();
+    private final LongAdder scratchCreated = new LongAdder();
+    // Queries answered with a result, and the time they took
+    private final LongAdder queriesServed = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private final LongAdder queriesFailed = new LongAdder();
+    private final LongAdder queriesRejected = new LongAdder();
+    private final AtomicInteger queriesInFlight = new AtomicInteger();
+    private final LongAdder queriesStopped = new LongAdder();
+    // Controls of the HTTP queries running now, cancelled by stop()
+    private final Set<RunControl> runningQueries = ConcurrentHashMap.newKeySet();
+    // Time budget of an HTTP query without a budgetMs parameter, 0 for none
+    private volatile long defaultBudgetMillis;
+    private ExecutorService executor;
+    private String executorName;
+    private HttpServer server;
+
+    /**
+     * QueryService answers BFS and Dijkstra queries against one graph held in memory, over HTTP on the local
+     * interface. The graph is only read, so every request runs on its own thread against the same
+     * instance, and the per-query arrays (distances, visited flags, queue, heap) come from a pool instead of
+     * being allocated for every request. The pool holds one set per core at most, so a burst of requests
+     * cannot allocate O(V) arrays without bound; a query that finds every set in use for 100 ms is rejected,
+     * over HTTP with 503. Every query counts its work in AlgorithmCounters published as an MBean, so the
+     * most recent ones can be inspected in JConsole like the visualizers' runs.
+     *
+     * @param graph the graph to serve, which must not be modified while the service runs
+     */
+    public QueryService(Graph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a service that runs at most maxConcurrentQueries queries at a time.
+     *
+     * @param graph the graph to serve, which must not be modified while the service runs
+     * @param maxConcurrentQueries the number of scratch sets, each holding a few arrays of the graph's size
+     */
+    public QueryService(Graph graph, int maxConcurrentQueries) {
+        if (maxConcurrentQueries < 1) {
+            throw new IllegalArgumentException("Invalid number of concurrent queries: " + maxConcurrentQueries);
+        }
+        this.graph = graph;
+        maxScratch = maxConcurrentQueries;
+        scratchPermits = new Semaphore(maxConcurrentQueries);
+    }
+
+    /**
+     * Starts serving on the given port of the loopback interface; 0 picks a free port. Endpoints:
+     * /bfs?source=S[&target=T], /dijkstra?source=S[&target=T] and /stats. Without a target the response is
+     * a CSV of every vertex's hops or distance, with a target it is that single number. A query may add
+     * &budgetMs=B to stop after B milliseconds; a stopped query without a target still answers with the
+     * vertices reached so far and an X-Partial-Result header, one with a target answers 503. A query that
+     * gets no scratch set in time also answers 503, and a malformed one 400.
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/bfs", exchange -> handle(exchange, true));
+        server.createContext("/dijkstra", exchange -> handle(exchange, false));
+        server.createContext("/stats", exchange -> respond(exchange, 200, stats()));
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, cancels the running queries and waits up to a second for them to finish.
+     */
+    public void stop() throws InterruptedException {
+        for (RunControl query : runningQueries) {
+            query.cancel();
+        }
+        server.stop(1);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sets the time budget of HTTP queries that do not give one, so that no query holds a thread for longer.
+     *
+     * @param budgetMillis the budget in milliseconds, 0 for none
+     */
+    public void setDefaultBudget(long budgetMillis) {
+        defaultBudgetMillis = budgetMillis;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * One virtual thread per request when the JVM has them (Java 21 and later). The build targets Java 17,
+     * so the factory is looked up by name, and older JVMs get a pool of platform threads instead.
+     */
+    private ExecutorService newExecutor() {
+        try {
+            ExecutorService virtualThreads = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            executorName = "one virtual thread per request";
+            return virtualThreads;
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+            executorName = threads + " platform threads";
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Runs a BFS from the source. Any thread.
+     *
+     * @param source the start vertex
+     * @param target the vertex whose hop count is wanted, in which case the search stops there
+     * @return the hop count of the target, or GraphAlgorithms.UNREACHED
+     * @throws RejectedExecutionException if every scratch set stays in use for 100 ms
+     */
+    public int hops(int source, int target) {
+        return hops(source, target, null);
+    }
+
+    /**
+     * Runs a BFS from the source that ends early once the control is stopped. Any thread.
+     *
+     * @param source the start vertex
+     * @param target the vertex whose hop count is wanted, in which case the search stops there
+     * @param control checked once per level, or null
+     * @return the hop count of the target, or GraphAlgorithms.UNREACHED if it was not reached
+     * @throws RejectedExecutionException if every scratch set stays in use for 100 ms
+     */
+    public int hops(int source, int target, RunControl control) {
+        checkVertex(source);
+        checkVertex(target);
+        Scratch scratch = acquire();
+        AlgorithmCounters counters = AlgorithmCounters.start("BFS", graph);
+        try {
+            return GraphAlgorithms.bfs(graph, source, target, scratch.values, scratch.workspace, control, counters);
+        } finally {
+            counters.finish();
+            release(scratch);
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the source until the target is settled. Any thread.
+     *
+     * @param source the start vertex
+     * @param target the vertex whose distance is wanted
+     * @return the distance of the target, or GraphAlgorithms.UNREACHED
+     * @throws RejectedExecutionException if every scratch set stays in use for 100 ms
+     */
+    public int distance(int source, int target) {
+        return distance(source, target, null);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the source until the target is settled or the control is stopped. Any
+     * thread.
+     *
+     * @param source the start vertex
+     * @param target the vertex whose distance is wanted
+     * @param control checked every 1024 settled vertices, or null
+     * @return the distance of the target, which is only an upper bound if the control stopped the search, or
+     *         GraphAlgorithms.UNREACHED
+     * @throws RejectedExecutionException if every scratch set stays in use for 100 ms
+     */
+    public int distance(int source, int target, RunControl control) {
+        checkVertex(source);
+        checkVertex(target);
+        Scratch scratch = acquire();
+        AlgorithmCounters counters = AlgorithmCounters.start("Dijkstra", graph);
+        try {
+            return GraphAlgorithms.dijkstra(graph, source, target, scratch.values, scratch.workspace, control,
+                    counters);
+        } finally {
+            counters.finish();
+            release(scratch);
+        }
+    }
+
+    private void handle(HttpExchange exchange, boolean breadthFirst) throws IOException {
+        long start = System.nanoTime();
+        queriesInFlight.incrementAndGet();
+        RunControl control = null;
+        try {
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            int source = intParameter(parameters, "source");
+            long budgetMillis = parameters.containsKey("budgetMs")
+                    ? intParameter(parameters, "budgetMs") : defaultBudgetMillis;
+            control = budgetMillis > 0 ? RunControl.withTimeout(budgetMillis, TimeUnit.MILLISECONDS) : new RunControl();
+            runningQueries.add(control);
+            if (parameters.containsKey("target")) {
+                int target = intParameter(parameters, "target");
+                int value = breadthFirst ? hops(source, target, control) : distance(source, target, control);
+                if (control.isStopped()) {
+                    queriesStopped.increment();
+                    respond(exchange, 503, "stopped after " + budgetMillis + " ms\n");
+                } else {
+                    respond(exchange, 200, value == GraphAlgorithms.UNREACHED ? "unreached\n" : value + "\n");
+                    served(start);
+                }
+                return;
+            }
+            checkVertex(source);
+            Scratch scratch = acquire();
+            try {
+                AlgorithmCounters counters = AlgorithmCounters.start(breadthFirst ? "BFS" : "Dijkstra", graph);
+                try {
+                    if (breadthFirst) {
+                        GraphAlgorithms.bfs(graph, source, -1, scratch.values, scratch.workspace, control, counters);
+                    } else {
+                        GraphAlgorithms.dijkstra(graph, source, -1, scratch.values, scratch.workspace, control,
+                                counters);
+                    }
+                } finally {
+                    counters.finish();
+                }
+                // The vertices not reached before the budget ran out are unreached in the partial result
+                if (control.isStopped()) {
+                    queriesStopped.increment();
+                    exchange.getResponseHeaders().set("X-Partial-Result", "true");
+                }
+                exchange.getResponseHeaders().set("Content-Type", "text/csv");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    ResultExporter.export(ResultExporter.vector(breadthFirst ? "hops" : "distance", scratch.values),
+                            Channels.newChannel(body), ResultExporter.Format.CSV, null, scratch.response);
+                }
+            } finally {
+                release(scratch);
+            }
+            served(start);
+        } catch (IllegalArgumentException e) {
+            queriesFailed.increment();
+            respond(exchange, 400, e.getMessage() + "\n");
+        } catch (RejectedExecutionException e) {
+            queriesRejected.increment();
+            respond(exchange, 503, e.getMessage() + "\n");
+        } finally {
+            if (control != null) {
+                runningQueries.remove(control);
+            }
+            queriesInFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void served(long start) {
+        queriesServed.increment();
+        queryNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Takes an idle scratch set, or creates one if fewer than maxScratch exist, waiting up to
+     * SCRATCH_WAIT_MILLIS for another query to return one.
+     */
+    private Scratch acquire() {
+        try {
+            if (!scratchPermits.tryAcquire(SCRATCH_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("busy: all " + maxScratch + " query slots are in use");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for a query slot");
+        }
+        Scratch scratch = idleScratch.poll();
+        if (scratch == null) {
+            try {
+                scratch = new Scratch(graph.getNumVertices());
+            } catch (RuntimeException | Error e) {
+                scratchPermits.release();
+                throw e;
+            }
+            scratchCreated.increment();
+        }
+        return scratch;
+    }
+
+    private void release(Scratch scratch) {
+        idleScratch.offer(scratch);
+        scratchPermits.release();
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= graph.getNumVertices()) {
+            throw new IllegalArgumentException("Invalid vertex: " + vertex);
+        }
+    }
+
+    private String stats() {
+        long served = queriesServed.sum();
+        return String.format("vertices %d%nedges %d%nexecutor %s%nqueries served %d%nqueries in flight %d%n"
+                        + "queries stopped by their budget %d%nqueries rejected as malformed %d%n"
+                        + "queries rejected while busy %d%nmean served query time %.3f ms%n"
+                        + "scratch sets created %d of at most %d%nscratch sets idle %d%n",
+                graph.getNumVertices(), graph.getNumEdges(), executorName, served, queriesInFlight.get(),
+                queriesStopped.sum(), queriesFailed.sum(), queriesRejected.sum(),
+                served == 0 ? 0 : queryNanos.sum() / 1e6 / served, scratchCreated.sum(), maxScratch,
+                idleScratch.size());
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(pair.substring(0, equals), pair.substring(equals + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static int intParameter(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * Loads or generates a graph once and serves queries on it until the process is stopped.
+     * Usage: QueryService random:N:P[:MIN:MAX[:SEED]]|implicit:grid|torus:R:C[:MIN:MAX[:SEED]]|graphFile [port [budgetMs]]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 3) {
+            System.err.println("Usage: QueryService random:N:P[:MIN:MAX[:SEED]]|implicit:grid|torus:R:C[:MIN:MAX[:SEED]]|graphFile [port [budgetMs]]");
+            System.exit(1);
+        }
+        Graph graph = BatchCli.loadGraph(args[0], 1, 10);
+        // A generated Graph is copied into an immutable CsrGraph; loaded graphs already are immutable
+        if (graph.getClass() == Graph.class) {
+            graph = CsrGraph.copyOf(graph);
+        }
+        QueryService service = new QueryService(graph);
+        if (args.length > 2) {
+            service.setDefaultBudget(Long.parseLong(args[2]));
+        }
+        service.start(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+        System.out.printf("Serving %,d vertices and %,d edges on http://127.0.0.1:%d (%s)%n",
+                graph.getNumVertices(), graph.getNumEdges(), service.getPort(), service.executorName);
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ResultExporter {
+    /**
+     * BINARY: a 24 byte little-endian header (magic, version, rows, columns) followed by the values
+     * row by row as little-endian ints, Integer.MAX_VALUE standing for unreached.
+     * CSV: a header line and one line per row, starting with the row's vertex; unreached cells are empty.
+     */
+    public enum Format {
+        BINARY, CSV
+    }
+
+    private static final long MAGIC = 0x544C555345524647L; // "GFRESULT" read as a little-endian long
+    private static final int VERSION = 1;
+    // Output is encoded into one direct buffer of this size and written whenever it fills up
+    private static final int BUFFER_BYTES = 1 << 20;
+    // Longest CSV cell: a comma, a minus sign and ten digits
+    private static final int MAX_CELL_BYTES = 12;
+
+    /**
+     * A read-only view of results, one row per vertex: a distance list, discovery times or a distance matrix.
+     */
+    public interface Table {
+        int getNumRows();
+
+        int getNumColumns();
+
+        String getColumnName(int column);
+
+        int getValue(int row, int column);
+    }
+
+    /**
+     * Receives every row of a table while it is streamed. The array is reused for the next row.
+     */
+    public interface RowListener {
+        void rowReady(int row, int[] values);
+    }
+
+    /**
+     * Wraps a single-source result such as a distance array, one row per vertex.
+     */
+    public static Table vector(String name, int[] values) {
+        return new Table() {
+            @Override
+            public int getNumRows() {
+                return values.length;
+            }
+
+            @Override
+            public int getNumColumns() {
+                return 1;
+            }
+
+            @Override
+            public String getColumnName(int column) {
+                return name;
+            }
+
+            @Override
+            public int getValue(int row, int column) {
+                return values[row];
+            }
+        };
+    }
+
+    /**
+     * Wraps an all-pairs matrix such as Floyd-Warshall's distances; column j holds the values towards vertex j.
+     */
+    public static Table matrix(int[][] values) {
+        return new Table() {
+            @Override
+            public int getNumRows() {
+                return values.length;
+            }
+
+            @Override
+            public int getNumColumns() {
+                return values.length == 0 ? 0 : values[0].length;
+            }
+
+            @Override
+            public String getColumnName(int column) {
+                return Integer.toString(column);
+            }
+
+            @Override
+            public int getValue(int row, int column) {
+                return values[row][column];
+            }
+        };
+    }
+
+    /**
+     * Writes a table to a file.
+     *
+     * @see #export(Table, Path, Format, RowListener)
+     */
+    public static void export(Table table, Path file, Format format) throws IOException {
+        export(table, file, format, null);
+    }
+
+    /**
+     * Writes a table to a file one row at a time. Rows are copied into a single reused row array and
+     * encoded into a direct buffer that is written out whenever it is full, so exporting a 20000 x 20000
+     * matrix needs 80 KB for the row and 1 MB for the buffer, never a second copy of the matrix. CSV
+     * numbers are encoded as ASCII digits directly, without creating Strings.
+     *
+     * @param table the results to export
+     * @param file the output file, replaced if it exists
+     * @param format the encoding
+     * @param listener also receives every row as it is written, or null
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(Table table, Path file, Format format, RowListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            export(table, channel, format, listener);
+        }
+    }
+
+    /**
+     * Writes a table to an open channel, e.g. Channels.newChannel(System.out), which is left open.
+     *
+     * @see #export(Table, Path, Format, RowListener)
+     */
+    public static void export(Table table, WritableByteChannel channel, Format format, RowListener listener)
+            throws IOException {
+        export(table, channel, format, listener, ByteBuffer.allocateDirect(BUFFER_BYTES));
+    }
+
+    /**
+     * Writes a table to an open channel through a caller-owned buffer of at least 64 bytes, so that callers
+     * exporting many small tables, such as the query service, can reuse one buffer.
+     *
+     * @see #export(Table, Path, Format, RowListener)
+     */
+    static void export(Table table, WritableByteChannel channel, Format format, RowListener listener,
+                       ByteBuffer buffer) throws IOException {
+        int numRows = table.getNumRows();
+        int numColumns = table.getNumColumns();
+        buffer.clear().order(ByteOrder.LITTLE_ENDIAN);
+        if (format == Format.BINARY) {
+            buffer.putLong(MAGIC).putInt(VERSION).putInt(numRows).putInt(numColumns).putInt(0);
+        } else {
+            putAscii(channel, buffer, "vertex");
+            for (int column = 0; column < numColumns; column++) {
+                putAscii(channel, buffer, ",");
+                putAscii(channel, buffer, table.getColumnName(column));
+            }
+            putAscii(channel, buffer, "\n");
+        }
+
+        int[] row = new int[numColumns];
+        for (int r = 0; r < numRows; r++) {
+            for (int column = 0; column < numColumns; column++) {
+                row[column] = table.getValue(r, column);
+            }
+            if (listener != null) {
+                listener.rowReady(r, row);
+            }
+            if (format == Format.BINARY) {
+                for (int column = 0; column < numColumns; column++) {
+                    if (buffer.remaining() < Integer.BYTES) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putInt(row[column]);
+                }
+            } else {
+                if (buffer.remaining() < MAX_CELL_BYTES) {
+                    drain(channel, buffer);
+                }
+                putDecimal(buffer, r);
+                for (int column = 0; column < numColumns; column++) {
+                    if (buffer.remaining() < MAX_CELL_BYTES + 1) {
+                        drain(channel, buffer);
+                    }
+                    buffer.put((byte) ',');
+                    if (row[column] != Integer.MAX_VALUE) {
+                        putDecimal(buffer, row[column]);
+                    }
+                }
+                buffer.put((byte) '\n');
+            }
+        }
+        drain(channel, buffer);
+    }
+
+    /**
+     * Hands every row of a table to a listener without writing anything.
+     */
+    public static void stream(Table table, RowListener listener) {
+        int[] row = new int[table.getNumColumns()];
+        for (int r = 0; r < table.getNumRows(); r++) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = table.getValue(r, column);
+            }
+            listener.rowReady(r, row);
+        }
+    }
+
+    private static void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void putAscii(WritableByteChannel channel, ByteBuffer buffer, String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            if (!buffer.hasRemaining()) {
+                drain(channel, buffer);
+            }
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Appends the decimal digits of a value; the caller makes sure MAX_CELL_BYTES - 1 bytes are free.
+     */
+    private static void putDecimal(ByteBuffer buffer, int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            buffer.put((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + remaining / divisor));
+            remaining %= divisor;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.concurrent.TimeUnit;
+
+public class RunControl {
+    private volatile boolean cancelled;
+    // System.nanoTime() by which the run has to stop, only meaningful when hasDeadline is set
+    private final boolean hasDeadline;
+    private final long deadline;
+
+    /**
+     * RunControl lets other threads stop a running algorithm, and gives a run a time budget. The algorithm
+     * polls it at cheap checkpoints (once per BFS level, Bellman-Ford pass, Floyd-Warshall pivot and so on)
+     * and, when it has been stopped, returns early with what it has computed so far. Once cancelled or past
+     * its deadline a control stays stopped, so every run gets its own. Visualizers are paused and resumed
+     * through their AnimationScheduler instead.
+     */
+    public RunControl() {
+        this(false, 0);
+    }
+
+    private RunControl(boolean hasDeadline, long deadline) {
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns a control whose runs stop once the given time has passed, counted from now.
+     *
+     * @param timeout the time budget
+     * @param unit the unit of timeout
+     */
+    public static RunControl withTimeout(long timeout, TimeUnit unit) {
+        return new RunControl(true, System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Asks the run to stop at its next checkpoint. Any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns whether the deadline of a control made by withTimeout has passed.
+     */
+    public boolean isExpired() {
+        return hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Returns whether the run should stop, because it was cancelled or its deadline passed. Any thread.
+     */
+    public boolean isStopped() {
+        return cancelled || isExpired();
+    }
+
+    /**
+     * Called by the algorithm thread between units of work. Interrupting the algorithm thread cancels the
+     * run too.
+     *
+     * @return true if the run may go on, false if it has to stop and return its partial result
+     */
+    public boolean checkpoint() {
+        if (Thread.currentThread().isInterrupted()) {
+            cancelled = true;
+        }
+        return !isStopped();
+    }
+}
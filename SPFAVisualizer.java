@@ -0,0 +1,104 @@
+public class SPFAVisualizer extends GraphPanel {
+    private final int[] distances;
+    // Reused by every run: a circular queue holds each vertex at most once, so numVertices slots suffice
+    private final int[] queue;
+    private final boolean[] inQueue;
+    private final int[] enqueueCounts;
+
+    /**
+     * SPFAVisualizer animates the Shortest Path Faster Algorithm, the queue-based form of Bellman-Ford: only
+     * the out-edges of vertices whose distance just improved are relaxed again. Queued vertices are gray
+     * and the vertex whose edges are being relaxed is black.
+     *
+     * @param graph The graph object that is being traversed.
+     */
+    public SPFAVisualizer(Graph graph) {
+        super(graph, 1, TableView.list(graph.getNumVertices(), new String[]{"Distance"}, "Unreached"));
+        distances = new int[graph.getNumVertices()];
+        queue = new int[graph.getNumVertices()];
+        inQueue = new boolean[graph.getNumVertices()];
+        enqueueCounts = new int[graph.getNumVertices()];
+        resetGraph();
+    }
+
+    /**
+     * resetGraph method is used to reset the color and distance of all vertices to white and 0.
+     */
+    public void resetGraph() {
+        stateBuffer.reset(0);
+    }
+
+    /**
+     * traverse method is used to compute the distances from the given startVertex.
+     *
+     * @param startVertex The vertex from where the distances are computed.
+     * @throws IllegalArgumentException if startVertex is not within the valid range of vertices.
+     */
+    public void traverse(int startVertex) {
+        resetGraph();
+        int numVertices = graph.getNumVertices();
+        if (startVertex < 0 || startVertex >= numVertices) {
+            throw new IllegalArgumentException("Invalid start vertex: " + startVertex);
+        }
+        startRun("SPFA");
+        for (int i = 0; i < numVertices; i++) {
+            distances[i] = Integer.MAX_VALUE;
+            stateBuffer.setValue(i, 0, Integer.MAX_VALUE);
+            inQueue[i] = false;
+            enqueueCounts[i] = 0;
+        }
+        distances[startVertex] = 0;
+        stateBuffer.setValue(startVertex, 0, 0);
+
+        int head = 0;
+        int size = 0;
+        queue[0] = startVertex;
+        size++;
+        inQueue[startVertex] = true;
+        enqueueCounts[startVertex] = 1;
+        stateBuffer.setState(startVertex, VertexStateBuffer.GRAY);
+        boolean negativeCycle = false;
+
+        // A stopped run ends before the next vertex is dequeued, with the distances found so far
+        while (size > 0 && !negativeCycle && control.checkpoint()) {
+            int u = queue[head];
+            head = (head + 1) % numVertices;
+            size--;
+            inQueue[u] = false;
+            counters.increment(AlgorithmCounters.Counter.VERTICES_VISITED);
+            stateBuffer.setState(u, VertexStateBuffer.BLACK);
+            scheduler.step();
+
+            for (int edge = 0; edge < graph.getOutDegree(u); edge++) {
+                int v = graph.getNeighbor(u, edge);
+                int weight = graph.getWeight(u, edge);
+                counters.increment(AlgorithmCounters.Counter.EDGES_SCANNED);
+                counters.increment(AlgorithmCounters.Counter.RELAXATIONS_ATTEMPTED);
+                if (distances[u] + weight < distances[v]) {
+                    distances[v] = distances[u] + weight;
+                    stateBuffer.setValue(v, 0, distances[v]);
+                    counters.increment(AlgorithmCounters.Counter.RELAXATIONS_SUCCEEDED);
+                    if (!inQueue[v]) {
+                        // A vertex queued numVertices times lies on or behind a negative cycle
+                        if (++enqueueCounts[v] >= numVertices) {
+                            negativeCycle = true;
+                            break;
+                        }
+                        queue[(head + size) % numVertices] = v;
+                        size++;
+                        inQueue[v] = true;
+                        stateBuffer.setState(v, VertexStateBuffer.GRAY);
+                    }
+                }
+                scheduler.step();
+            }
+            stateBuffer.setState(u, inQueue[u] ? VertexStateBuffer.GRAY : VertexStateBuffer.WHITE);
+        }
+        counters.finish();
+        scheduler.finish();
+        if (negativeCycle) {
+            showResult("Negative weight cycle detected. " +
+                    "Please try adjusting your parameters to make this less probable.");
+        }
+    }
+}
@@ -0,0 +1,262 @@
+import java.util.function.IntConsumer;
+
+public class SpatialIndex {
+    // An edge is stored at the finest grid level where its segment crosses at most this many cells
+    private static final int MAX_CELLS_PER_EDGE = 16;
+    // Slack added to the rows a segment crosses in a column, so rounding never drops a cell
+    private static final double SEGMENT_SLACK = 1e-3;
+
+    /**
+     * Receives an edge found by a query, identified by its source vertex and its index in that
+     * vertex's adjacency.
+     */
+    public interface EdgeConsumer {
+        void accept(int source, int edgeIndex);
+    }
+
+    private final Graph graph;
+    private final VertexLayout layout;
+    private final float cellSize;
+    private final int gridCols;
+    private final int gridRows;
+    // Edge grid levels: level l has cells 2^l times as wide as the vertex grid, and its cells are numbered
+    // from levelBase[l] on, row by row
+    private final int numLevels;
+    private final int[] levelCols;
+    private final int[] levelBase;
+
+    // Bucketed cell contents: the items of cell c are items[cellStart[c]] to items[cellStart[c + 1] - 1]
+    private final int[] vertexCellStart;
+    private final int[] vertexItems;
+    private final int[] edgeCellStart;
+    private final int[] edgeItems;
+
+    // Global edge id = edgeOffsets[source] + edgeIndex
+    private final long[] edgeOffsets;
+    private final int[] edgeSources;
+    private final int[] edgeStamps;
+    private int queryStamp;
+
+    /**
+     * SpatialIndex is a uniform grid over the vertex positions of a laid out graph, plus a pyramid of ever
+     * coarser grids over its edges, so a visualizer can find the vertices and edges inside the visible area
+     * without scanning the whole graph. Every edge is stored in the cells its segment crosses, on the finest
+     * level where those are at most a few, so short edges sit in small cells, long edges in large ones, and
+     * no edge takes more than a few entries.
+     *
+     * @param graph the graph whose edges are indexed
+     * @param layout the positions of the vertices
+     * @param cellSize the side length of a grid cell in world units
+     */
+    public SpatialIndex(Graph graph, VertexLayout layout, float cellSize) {
+        this.graph = graph;
+        this.layout = layout;
+        this.cellSize = cellSize;
+        int numVertices = graph.getNumVertices();
+        gridCols = Math.max(1, (int) Math.ceil(layout.getWidth() / cellSize));
+        gridRows = Math.max(1, (int) Math.ceil(layout.getHeight() / cellSize));
+        int numCells = gridCols * gridRows;
+
+        // Bucket the vertices with a counting pass followed by a filling pass
+        vertexCellStart = new int[numCells + 1];
+        for (int v = 0; v < numVertices; v++) {
+            vertexCellStart[cellOf(layout.getX(v), layout.getY(v)) + 1]++;
+        }
+        prefixSum(vertexCellStart);
+        vertexItems = new int[numVertices];
+        int[] fill = vertexCellStart.clone();
+        for (int v = 0; v < numVertices; v++) {
+            vertexItems[fill[cellOf(layout.getX(v), layout.getY(v))]++] = v;
+        }
+
+        // Number the edges so each can be referred to by a single int
+        edgeOffsets = new long[numVertices + 1];
+        for (int v = 0; v < numVertices; v++) {
+            edgeOffsets[v + 1] = edgeOffsets[v] + graph.getOutDegree(v);
+        }
+        int numEdges = Math.toIntExact(edgeOffsets[numVertices]);
+        edgeSources = new int[numEdges];
+        edgeStamps = new int[numEdges];
+
+        // Halve the grid until a single cell covers the whole layout
+        int levels = 1;
+        while ((gridCols - 1) >> (levels - 1) > 0 || (gridRows - 1) >> (levels - 1) > 0) {
+            levels++;
+        }
+        numLevels = levels;
+        levelCols = new int[numLevels];
+        levelBase = new int[numLevels + 1];
+        for (int level = 0; level < numLevels; level++) {
+            levelCols[level] = ((gridCols - 1) >> level) + 1;
+            levelBase[level + 1] = levelBase[level] + levelCols[level] * (((gridRows - 1) >> level) + 1);
+        }
+
+        // Bucket the edges along their segments, again counting first
+        int numEdgeCells = levelBase[numLevels];
+        edgeCellStart = new int[numEdgeCells + 1];
+        for (int v = 0; v < numVertices; v++) {
+            for (int edge = 0; edge < graph.getOutDegree(v); edge++) {
+                edgeSources[(int) edgeOffsets[v] + edge] = v;
+                forEachSegmentCell(v, graph.getNeighbor(v, edge), cell -> edgeCellStart[cell + 1]++);
+            }
+        }
+        prefixSum(edgeCellStart);
+        edgeItems = new int[edgeCellStart[numEdgeCells]];
+        int[] edgeFill = edgeCellStart.clone();
+        for (int v = 0; v < numVertices; v++) {
+            for (int edge = 0; edge < graph.getOutDegree(v); edge++) {
+                int id = (int) edgeOffsets[v] + edge;
+                forEachSegmentCell(v, graph.getNeighbor(v, edge), cell -> edgeItems[edgeFill[cell]++] = id);
+            }
+        }
+    }
+
+    /**
+     * Passes every vertex whose center lies in the given world rectangle to the consumer.
+     */
+    public void queryVertices(double minX, double minY, double maxX, double maxY, IntConsumer consumer) {
+        int col0 = clampCol(minX);
+        int col1 = clampCol(maxX);
+        int row0 = clampRow(minY);
+        int row1 = clampRow(maxY);
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                int cell = row * gridCols + col;
+                for (int i = vertexCellStart[cell]; i < vertexCellStart[cell + 1]; i++) {
+                    int v = vertexItems[i];
+                    float x = layout.getX(v);
+                    float y = layout.getY(v);
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        consumer.accept(v);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes every edge whose segment crosses the given world rectangle to the consumer, once each, along
+     * with edges whose bounding box intersects it and whose segment passes close by. Event Dispatch Thread
+     * only, since duplicates are filtered with shared stamps.
+     */
+    public void queryEdges(double minX, double minY, double maxX, double maxY, EdgeConsumer consumer) {
+        queryStamp++;
+        int col0 = clampCol(minX);
+        int col1 = clampCol(maxX);
+        int row0 = clampRow(minY);
+        int row1 = clampRow(maxY);
+        for (int level = 0; level < numLevels; level++) {
+            for (int row = row0 >> level; row <= row1 >> level; row++) {
+                for (int col = col0 >> level; col <= col1 >> level; col++) {
+                    int cell = levelBase[level] + row * levelCols[level] + col;
+                    for (int i = edgeCellStart[cell]; i < edgeCellStart[cell + 1]; i++) {
+                        acceptEdge(edgeItems[i], minX, minY, maxX, maxY, consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an upper bound on the number of edges queryEdges would report for the rectangle, computed
+     * from the bucket sizes without visiting any edge.
+     */
+    public long estimateEdges(double minX, double minY, double maxX, double maxY) {
+        long count = 0;
+        int col0 = clampCol(minX);
+        int col1 = clampCol(maxX);
+        int row0 = clampRow(minY);
+        int row1 = clampRow(maxY);
+        for (int level = 0; level < numLevels; level++) {
+            for (int row = row0 >> level; row <= row1 >> level; row++) {
+                int rowBase = levelBase[level] + row * levelCols[level];
+                count += edgeCellStart[rowBase + (col1 >> level) + 1] - edgeCellStart[rowBase + (col0 >> level)];
+            }
+        }
+        return count;
+    }
+
+    private void acceptEdge(int id, double minX, double minY, double maxX, double maxY, EdgeConsumer consumer) {
+        if (edgeStamps[id] == queryStamp) {
+            return;
+        }
+        edgeStamps[id] = queryStamp;
+        int source = edgeSources[id];
+        int edgeIndex = id - (int) edgeOffsets[source];
+        int dest = graph.getNeighbor(source, edgeIndex);
+        float x1 = layout.getX(source);
+        float y1 = layout.getY(source);
+        float x2 = layout.getX(dest);
+        float y2 = layout.getY(dest);
+        if (Math.max(x1, x2) >= minX && Math.min(x1, x2) <= maxX
+                && Math.max(y1, y2) >= minY && Math.min(y1, y2) <= maxY) {
+            consumer.accept(source, edgeIndex);
+        }
+    }
+
+    /**
+     * Passes the cells of the edge's level that its segment crosses to the consumer. The level is the finest
+     * one where the segment crosses at most MAX_CELLS_PER_EDGE cells, counted from its bounding box; the cells
+     * are found column by column from the rows the segment spans within each column.
+     */
+    private void forEachSegmentCell(int source, int dest, IntConsumer consumer) {
+        double x1 = layout.getX(source);
+        double y1 = layout.getY(source);
+        double x2 = layout.getX(dest);
+        double y2 = layout.getY(dest);
+        if (x1 > x2) {
+            double swap = x1;
+            x1 = x2;
+            x2 = swap;
+            swap = y1;
+            y1 = y2;
+            y2 = swap;
+        }
+        int col0 = clampCol(x1);
+        int col1 = clampCol(x2);
+        int row0 = clampRow(Math.min(y1, y2));
+        int row1 = clampRow(Math.max(y1, y2));
+        int level = 0;
+        while (level < numLevels - 1
+                && (col1 >> level) - (col0 >> level) + (row1 >> level) - (row0 >> level) + 1 > MAX_CELLS_PER_EDGE) {
+            level++;
+        }
+
+        double slope = x2 > x1 ? (y2 - y1) / (x2 - x1) : 0;
+        double levelCellSize = (double) cellSize * (1L << level);
+        for (int col = col0 >> level; col <= col1 >> level; col++) {
+            // The outermost columns also hold whatever lies beyond the layout, as clampCol puts it there
+            int rowFrom = row0 >> level;
+            int rowTo = row1 >> level;
+            if (x2 > x1) {
+                double xFrom = col == col0 >> level ? x1 : col * levelCellSize;
+                double xTo = col == col1 >> level ? x2 : (col + 1) * levelCellSize;
+                double yFrom = y1 + (xFrom - x1) * slope;
+                double yTo = y1 + (xTo - x1) * slope;
+                rowFrom = clampRow(Math.min(yFrom, yTo) - SEGMENT_SLACK) >> level;
+                rowTo = clampRow(Math.max(yFrom, yTo) + SEGMENT_SLACK) >> level;
+            }
+            for (int row = rowFrom; row <= rowTo; row++) {
+                consumer.accept(levelBase[level] + row * levelCols[level] + col);
+            }
+        }
+    }
+
+    private int cellOf(float x, float y) {
+        return clampRow(y) * gridCols + clampCol(x);
+    }
+
+    private int clampCol(double x) {
+        return (int) Math.max(0, Math.min(gridCols - 1, Math.floor(x / cellSize)));
+    }
+
+    private int clampRow(double y) {
+        return (int) Math.max(0, Math.min(gridRows - 1, Math.floor(y / cellSize)));
+    }
+
+    private static void prefixSum(int[] counts) {
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+public class StaticLayerCache {
+    private BufferedImage image;
+    private boolean valid;
+
+    /**
+     * StaticLayerCache keeps the parts of a visualization that do not change while an algorithm runs
+     * (edges and their arrowheads, or the edge density image) rendered into an offscreen image. The image
+     * is only redrawn when the component is resized or invalidate() is called, so each frame is a single
+     * drawImage plus the dynamic overlay.
+     */
+    public StaticLayerCache() {
+        valid = false;
+    }
+
+    /**
+     * Marks the cached image as stale, e.g. after the graph changed. It is redrawn on the next getImage.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Returns the cached layer for the component, redrawing it with the painter if it is stale or the
+     * component size changed.
+     *
+     * @param component the component the layer is drawn for
+     * @param painter draws the static layer into the given graphics, using component coordinates
+     * @return an image the size of the component
+     */
+    public BufferedImage getImage(Component component, Consumer<Graphics2D> painter) {
+        int width = Math.max(1, component.getWidth());
+        int height = Math.max(1, component.getHeight());
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            // A compatible image can be kept in video memory by Java2D, which makes drawImage cheap
+            GraphicsConfiguration config = component.getGraphicsConfiguration();
+            if (config != null) {
+                image = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            } else {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            }
+            valid = false;
+        }
+        if (!valid) {
+            Graphics2D g2d = image.createGraphics();
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setFont(component.getFont());
+            painter.accept(g2d);
+            g2d.dispose();
+            valid = true;
+        }
+        return image;
+    }
+}
@@ -0,0 +1,242 @@
+import java.awt.*;
+
+public class TableView {
+    // Placement the visualizers have always used: lists 330 pixels from the right edge at y = 130,
+    // the Floyd-Warshall matrix one row lower and rowHeight^2 - 125 pixels from the right edge
+    private static final int TOP = 130;
+    private static final int LIST_COLUMN_WIDTH = 70;
+    private static final int LIST_RIGHT_OFFSET = LIST_COLUMN_WIDTH * 4 + 50;
+    private static final int MATRIX_RIGHT_OFFSET = -125;
+    private static final int WHEEL_ROWS = 3;
+    // Largest matrix a visualizer shows. The state buffer's working and published copies, its two snapshots
+    // and the algorithm's own matrix each hold numVertices^2 ints, 80 MiB together at this size
+    public static final int MAX_MATRIX_VERTICES = 2048;
+
+    private final int numRows;
+    private final int numColumns;
+    private final boolean matrix;
+    private final String cornerHeader;
+    private final String[] columnHeaders;
+    private final String unreachedText;
+    private final NumberTextCache cellText;
+
+    private int firstRow;
+    private int firstColumn;
+
+    // Geometry of the most recent layout, in screen coordinates
+    private boolean laidOut;
+    private int left;
+    private int top;
+    private int rowHeight;
+    private int cellWidth;
+    private int visibleRows;
+    private int visibleColumns;
+
+    /**
+     * TableView is the scrollable table drawn next to the graph. Only the rows and columns that fit in
+     * the panel are laid out and drawn, starting at the current scroll position; the header row and the
+     * vertex column stay in place while scrolling. Numbers are formatted once and reused from a cache.
+     */
+    private TableView(int numRows, int numColumns, boolean matrix, String cornerHeader, String[] columnHeaders,
+                      String unreachedText) {
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        this.matrix = matrix;
+        this.cornerHeader = cornerHeader;
+        this.columnHeaders = columnHeaders;
+        this.unreachedText = unreachedText;
+        cellText = new NumberTextCache();
+        firstRow = 0;
+        firstColumn = 0;
+        laidOut = false;
+    }
+
+    /**
+     * Creates a table with one row per vertex and one column per published value.
+     *
+     * @param numVertices the number of rows
+     * @param valueHeaders the header of each value column
+     * @param unreachedText shown instead of Integer.MAX_VALUE
+     * @return the table
+     */
+    public static TableView list(int numVertices, String[] valueHeaders, String unreachedText) {
+        return new TableView(numVertices, valueHeaders.length, false, "Vertex", valueHeaders, unreachedText);
+    }
+
+    /**
+     * Creates a numVertices x numVertices matrix whose rows and columns are labeled with vertex numbers.
+     * Cells holding Integer.MAX_VALUE are left empty.
+     *
+     * @param numVertices the number of rows and columns
+     * @return the table
+     * @throws IllegalArgumentException if numVertices is above MAX_MATRIX_VERTICES
+     */
+    public static TableView matrix(int numVertices) {
+        checkMatrixSize(numVertices);
+        return new TableView(numVertices, numVertices, true, "", null, "");
+    }
+
+    /**
+     * Rejects graphs too large for an all-pairs matrix visualizer, before the graph or the matrix is built.
+     *
+     * @throws IllegalArgumentException if numVertices is above MAX_MATRIX_VERTICES
+     */
+    public static void checkMatrixSize(int numVertices) {
+        if (numVertices > MAX_MATRIX_VERTICES) {
+            throw new IllegalArgumentException("The distance matrix is limited to " + MAX_MATRIX_VERTICES
+                    + " vertices, the graph has " + numVertices);
+        }
+    }
+
+    /**
+     * Computes which rows and columns fit in a component of the given size. Called at the start of
+     * every paint; Event Dispatch Thread only, like the rest of this class.
+     */
+    public void layout(FontMetrics fontMetrics, int width, int height) {
+        rowHeight = fontMetrics.getHeight() + 10;
+        if (matrix) {
+            cellWidth = rowHeight;
+            left = width - rowHeight * rowHeight - MATRIX_RIGHT_OFFSET;
+            top = TOP + rowHeight;
+        } else {
+            cellWidth = LIST_COLUMN_WIDTH;
+            left = width - LIST_RIGHT_OFFSET;
+            top = TOP;
+        }
+
+        // Rows and columns that start inside the component are shown, even if they are cut off
+        int rowSpace = height - top - rowHeight;
+        visibleRows = Math.max(0, Math.min(numRows, (rowSpace + rowHeight - 1) / rowHeight));
+        int columnSpace = width - left - cellWidth;
+        visibleColumns = matrix ? Math.max(0, Math.min(numColumns, (columnSpace + cellWidth - 1) / cellWidth)) : numColumns;
+        firstRow = clamp(firstRow, numRows - visibleRows);
+        firstColumn = clamp(firstColumn, numColumns - visibleColumns);
+        laidOut = true;
+    }
+
+    /**
+     * Draws the visible part of the table, skipping the cells outside the clip.
+     *
+     * @param g2d the Graphics object to draw on, in screen coordinates
+     * @param frame the vertex state to show
+     */
+    public void paint(Graphics g2d, VertexStateBuffer.Snapshot frame) {
+        if (!laidOut) {
+            return;
+        }
+        FontMetrics fontMetrics = g2d.getFontMetrics();
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null) {
+            clip = getBounds();
+        }
+        int right = left + (visibleColumns + 1) * cellWidth;
+        int bottom = top + (visibleRows + 1) * rowHeight;
+        g2d.setColor(Color.BLACK);
+
+        // The grid is a few long lines rather than one rectangle per cell
+        for (int row = 0; row <= visibleRows + 1; row++) {
+            g2d.drawLine(left, top + row * rowHeight, right, top + row * rowHeight);
+        }
+        for (int column = 0; column <= visibleColumns + 1; column++) {
+            g2d.drawLine(left + column * cellWidth, top, left + column * cellWidth, bottom);
+        }
+
+        // Range of screen rows and columns (0 = header) that intersect the clip
+        int rowFrom = Math.max(0, (clip.y - top) / rowHeight);
+        int rowTo = Math.min(visibleRows, (clip.y + clip.height - top) / rowHeight);
+        int columnFrom = Math.max(0, (clip.x - left) / cellWidth);
+        int columnTo = Math.min(visibleColumns, (clip.x + clip.width - left) / cellWidth);
+        if (clip.x + clip.width < left || clip.y + clip.height < top) {
+            return;
+        }
+
+        for (int screenRow = rowFrom; screenRow <= rowTo; screenRow++) {
+            int y = top + screenRow * rowHeight;
+            int row = firstRow + screenRow - 1;
+            for (int screenColumn = columnFrom; screenColumn <= columnTo; screenColumn++) {
+                int x = left + screenColumn * cellWidth;
+                int column = firstColumn + screenColumn - 1;
+                if (screenRow == 0 && screenColumn == 0) {
+                    drawCentered(g2d, fontMetrics, cornerHeader, fontMetrics.stringWidth(cornerHeader), x, y);
+                } else if (screenRow == 0) {
+                    if (matrix) {
+                        drawCentered(g2d, fontMetrics, cellText.text(column), cellText.width(column, fontMetrics), x, y);
+                    } else {
+                        String header = columnHeaders[column];
+                        drawCentered(g2d, fontMetrics, header, fontMetrics.stringWidth(header), x, y);
+                    }
+                } else if (screenColumn == 0) {
+                    drawCentered(g2d, fontMetrics, cellText.text(row), cellText.width(row, fontMetrics), x, y);
+                } else {
+                    int value = frame.getValue(row, column);
+                    if (value == Integer.MAX_VALUE) {
+                        drawCentered(g2d, fontMetrics, unreachedText, fontMetrics.stringWidth(unreachedText), x, y);
+                    } else {
+                        drawCentered(g2d, fontMetrics, cellText.text(value), cellText.width(value, fontMetrics), x, y);
+                    }
+                }
+            }
+        }
+    }
+
+    private void drawCentered(Graphics g2d, FontMetrics fontMetrics, String text, int textWidth, int x, int y) {
+        if (!text.isEmpty()) {
+            g2d.drawString(text, x + cellWidth / 2 - textWidth / 2, y + rowHeight / 2 + fontMetrics.getHeight() / 2 - 3);
+        }
+    }
+
+    /**
+     * Scrolls by the given number of rows and columns, staying within the table.
+     *
+     * @return true if the scroll position changed
+     */
+    public boolean scroll(int rows, int columns) {
+        int oldRow = firstRow;
+        int oldColumn = firstColumn;
+        firstRow = clamp(firstRow + rows, numRows - visibleRows);
+        firstColumn = clamp(firstColumn + columns, numColumns - visibleColumns);
+        return firstRow != oldRow || firstColumn != oldColumn;
+    }
+
+    /**
+     * Scrolls for one mouse wheel event over the table: vertically, or horizontally with shift held.
+     *
+     * @return true if the scroll position changed
+     */
+    public boolean scrollWheel(int wheelRotation, boolean horizontal) {
+        return horizontal ? scroll(0, wheelRotation * WHEEL_ROWS) : scroll(wheelRotation * WHEEL_ROWS, 0);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, Math.max(0, max)));
+    }
+
+    /**
+     * Returns the header of a value column: the published value's name, or the vertex number in a matrix.
+     */
+    public String getColumnName(int column) {
+        return matrix ? cellText.text(column) : columnHeaders[column];
+    }
+
+    /**
+     * Returns the screen area the table covers, or an empty rectangle before the first layout.
+     */
+    public Rectangle getBounds() {
+        if (!laidOut) {
+            return new Rectangle();
+        }
+        return new Rectangle(left, top, (visibleColumns + 1) * cellWidth + 1, (visibleRows + 1) * rowHeight + 1);
+    }
+
+    /**
+     * Returns the screen area of the row showing the given vertex, or an empty rectangle if the row is
+     * scrolled out of view.
+     */
+    public Rectangle getRowBounds(int vertex) {
+        if (!laidOut || vertex < firstRow || vertex >= firstRow + visibleRows) {
+            return new Rectangle();
+        }
+        return new Rectangle(left, top + (vertex - firstRow + 1) * rowHeight,
+                (visibleColumns + 1) * cellWidth + 1, rowHeight + 1);
+    }
+}
@@ -0,0 +1,62 @@
+public class VertexLayout {
+    private final float[] xs;
+    private final float[] ys;
+    private final float width;
+    private final float height;
+
+    /**
+     * VertexLayout holds the world coordinates of the center of every vertex, plus the size of the area
+     * the drawing occupies. Visualizers draw in these coordinates and let the Viewport map them to the screen.
+     *
+     * @param xs the x-coordinate of each vertex center
+     * @param ys the y-coordinate of each vertex center
+     * @param width the width of the drawing
+     * @param height the height of the drawing
+     */
+    public VertexLayout(float[] xs, float[] ys, float width, float height) {
+        this.xs = xs;
+        this.ys = ys;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Places the vertices row by row on a square-ish grid, the layout all visualizers have always used.
+     *
+     * @param numVertices the number of vertices
+     * @param edgeLength the distance between neighboring grid points
+     * @param vertexRadius the radius of a vertex circle
+     * @return the grid layout
+     */
+    public static VertexLayout grid(int numVertices, int edgeLength, int vertexRadius) {
+        int numRows = (int) Math.ceil(Math.sqrt(numVertices)); // number of rows in grid
+        int numCols = (int) Math.ceil((double) numVertices / numRows); // number of columns in grid
+        float[] xs = new float[numVertices];
+        float[] ys = new float[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            xs[i] = (i % numCols) * edgeLength + vertexRadius;
+            ys[i] = (i / numCols) * edgeLength + vertexRadius;
+        }
+        return new VertexLayout(xs, ys, numCols * edgeLength + 2 * vertexRadius, numRows * edgeLength + 2 * vertexRadius);
+    }
+
+    public float getX(int vertex) {
+        return xs[vertex];
+    }
+
+    public float getY(int vertex) {
+        return ys[vertex];
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public int getNumVertices() {
+        return xs.length;
+    }
+}
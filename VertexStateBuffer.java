@@ -0,0 +1,275 @@
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+public class VertexStateBuffer {
+    public static final byte WHITE = 0;
+    public static final byte GRAY = 1;
+    public static final byte BLACK = 2;
+
+    private final int numVertices;
+    private final int valuesPerVertex;
+    // The writer's own copy, changed by every set call
+    private final byte[] states;
+    private final int[] values;
+    // The published copy readers take snapshots of, only changed inside publish
+    private final byte[] publishedStates;
+    private final int[] publishedValues;
+
+    // Seqlock sequence number: odd only while publish copies the changes into the published arrays
+    private volatile long sequence;
+
+    // Vertices changed since the last publish (writer only), and published changes not yet repainted
+    private final long[] pendingDirty;
+    private final int[] pendingWords;
+    private int numPendingWords;
+    private final AtomicLongArray publishedDirty;
+
+    // Only touched by the reading (Event Dispatch) thread
+    private Snapshot front;
+    private Snapshot back;
+    private boolean stale;
+
+    /**
+     * VertexStateBuffer holds the color of every vertex plus a fixed number of int values per vertex
+     * (distances, discovery times, ...). It is written by the algorithm thread and read by the Event Dispatch
+     * Thread. The writer changes a private copy, and publish copies the changed vertices into the published
+     * copy under a seqlock, so readers copy out a consistent snapshot without ever taking a lock or blocking
+     * the writer, and only ever wait out that short copy however long the writer goes without publishing.
+     *
+     * @param numVertices the number of vertices
+     * @param valuesPerVertex the number of int values stored for each vertex
+     * @throws IllegalArgumentException if the values do not fit in one array
+     */
+    public VertexStateBuffer(int numVertices, int valuesPerVertex) {
+        long numValues = (long) numVertices * valuesPerVertex;
+        if (numValues > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many values for a state buffer: " + numVertices + " vertices x "
+                    + valuesPerVertex);
+        }
+        this.numVertices = numVertices;
+        this.valuesPerVertex = valuesPerVertex;
+        states = new byte[numVertices];
+        values = new int[(int) numValues];
+        publishedStates = new byte[numVertices];
+        publishedValues = new int[(int) numValues];
+        pendingDirty = new long[(numVertices + 63) / 64];
+        pendingWords = new int[pendingDirty.length];
+        publishedDirty = new AtomicLongArray(pendingDirty.length);
+        front = new Snapshot(this);
+        back = new Snapshot(this);
+    }
+
+    /**
+     * Sets every vertex to WHITE and every value to the given value, then publishes the result.
+     * Writer thread only.
+     *
+     * @param value the value every slot is reset to
+     */
+    public void reset(int value) {
+        for (int i = 0; i < states.length; i++) {
+            states[i] = WHITE;
+            markDirty(i);
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = value;
+        }
+        publish();
+    }
+
+    /**
+     * Changes the color of a vertex. The change becomes visible to readers at the next publish.
+     * Writer thread only.
+     */
+    public void setState(int vertex, byte state) {
+        states[vertex] = state;
+        markDirty(vertex);
+    }
+
+    /**
+     * Changes one of the values of a vertex. The change becomes visible to readers at the next publish.
+     * Writer thread only.
+     */
+    public void setValue(int vertex, int column, int value) {
+        values[vertex * valuesPerVertex + column] = value;
+        markDirty(vertex);
+    }
+
+    /**
+     * Returns the current (possibly unpublished) color of a vertex. Writer thread only.
+     */
+    public byte getState(int vertex) {
+        return states[vertex];
+    }
+
+    /**
+     * Returns the current (possibly unpublished) value of a vertex. Writer thread only.
+     */
+    public int getValue(int vertex, int column) {
+        return values[vertex * valuesPerVertex + column];
+    }
+
+    /**
+     * Makes all changes since the last publish visible to readers as one atomic snapshot.
+     * Writer thread only.
+     */
+    public void publish() {
+        if (numPendingWords == 0) {
+            return;
+        }
+        sequence = sequence + 1;
+        // Keep the copies that follow from being reordered before the odd sequence number
+        VarHandle.storeStoreFence();
+        for (int i = 0; i < numPendingWords; i++) {
+            int word = pendingWords[i];
+            long bits = pendingDirty[word];
+            while (bits != 0) {
+                int vertex = word * 64 + Long.numberOfTrailingZeros(bits);
+                publishedStates[vertex] = states[vertex];
+                System.arraycopy(values, vertex * valuesPerVertex, publishedValues, vertex * valuesPerVertex,
+                        valuesPerVertex);
+                bits &= bits - 1;
+            }
+        }
+        // Volatile write: every copy above happens-before a reader that sees the even sequence
+        sequence = sequence + 1;
+
+        // Only hand the changed vertices over once their data is readable
+        for (int i = 0; i < numPendingWords; i++) {
+            int word = pendingWords[i];
+            publishedDirty.getAndAccumulate(word, pendingDirty[word], (a, b) -> a | b);
+            pendingDirty[word] = 0;
+        }
+        numPendingWords = 0;
+    }
+
+    private void markDirty(int vertex) {
+        int word = vertex >>> 6;
+        if (pendingDirty[word] == 0) {
+            pendingWords[numPendingWords++] = word;
+        }
+        pendingDirty[word] |= 1L << vertex;
+    }
+
+    /**
+     * Passes every vertex whose published state changed since the previous call to the consumer, and
+     * clears them. Used by the reader to repaint only what changed.
+     *
+     * @param consumer receives each changed vertex
+     */
+    public void drainDirty(IntConsumer consumer) {
+        for (int word = 0; word < publishedDirty.length(); word++) {
+            if (publishedDirty.get(word) == 0) {
+                continue;
+            }
+            long bits = publishedDirty.getAndSet(word, 0);
+            while (bits != 0) {
+                consumer.accept(word * 64 + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the latest consistent snapshot. If the writer keeps publishing while it is being copied the
+     * previous snapshot is returned instead, so this never blocks. Reader (Event Dispatch) thread only; the
+     * returned snapshot stays valid until the next call.
+     *
+     * @return the most recent published state
+     */
+    public Snapshot readSnapshot() {
+        for (int attempt = 0; attempt < 64; attempt++) {
+            long before = sequence;
+            if (before == front.sequence) {
+                stale = false;
+                return front;
+            }
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            System.arraycopy(publishedStates, 0, back.states, 0, publishedStates.length);
+            System.arraycopy(publishedValues, 0, back.values, 0, publishedValues.length);
+            VarHandle.loadLoadFence();
+            if (sequence == before) {
+                back.sequence = before;
+                Snapshot swap = front;
+                front = back;
+                back = swap;
+                stale = false;
+                return front;
+            }
+        }
+        stale = true;
+        return front;
+    }
+
+    /**
+     * Copies the current state, published or not, into a new snapshot. Writer thread only; used to record
+     * frames of a run without going through the reader side.
+     *
+     * @return a snapshot owned by the caller
+     */
+    public Snapshot copyCurrent() {
+        Snapshot copy = new Snapshot(this);
+        System.arraycopy(states, 0, copy.states, 0, states.length);
+        System.arraycopy(values, 0, copy.values, 0, values.length);
+        return copy;
+    }
+
+    /**
+     * Returns whether the last readSnapshot call gave up because the writer kept publishing, and so handed
+     * out an older frame. The reader should then schedule another repaint. Reader thread only.
+     *
+     * @return true if the current snapshot may be missing published changes
+     */
+    public boolean isSnapshotStale() {
+        return stale;
+    }
+
+    /**
+     * Returns the number of vertices.
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Returns the number of values stored per vertex.
+     */
+    public int getValuesPerVertex() {
+        return valuesPerVertex;
+    }
+
+    /**
+     * An immutable-by-convention copy of the buffer, owned by the reader thread.
+     */
+    public static class Snapshot {
+        private final int valuesPerVertex;
+        private final byte[] states;
+        private final int[] values;
+        private long sequence = -1;
+
+        private Snapshot(VertexStateBuffer buffer) {
+            valuesPerVertex = buffer.valuesPerVertex;
+            states = new byte[buffer.numVertices];
+            values = new int[buffer.values.length];
+        }
+
+        public byte getState(int vertex) {
+            return states[vertex];
+        }
+
+        public int getValue(int vertex, int column) {
+            return values[vertex * valuesPerVertex + column];
+        }
+
+        /**
+         * Returns the seqlock sequence number the snapshot was taken at. It grows by 2 with every publish,
+         * so the difference between two snapshots tells how many publishes lie between them.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import javax.swing.*;
+
+public class Viewport {
+    private static final double MIN_SCALE = 0.001;
+    private static final double MAX_SCALE = 8;
+    private static final double ZOOM_STEP = 1.15;
+
+    private double scale;
+    private double offsetX;
+    private double offsetY;
+    private boolean moved;
+    private Runnable changeListener;
+
+    /**
+     * Viewport maps world (layout) coordinates to screen coordinates with a uniform scale and an offset.
+     * Until the user zooms or pans, it keeps the drawing centered at its natural size, like the fixed
+     * layout visualizers used before; afterwards it keeps the user's view.
+     */
+    public Viewport() {
+        scale = 1;
+        moved = false;
+    }
+
+    /**
+     * Adds mouse wheel zoom (around the cursor), drag to pan and double click to reset to the component.
+     *
+     * @param component the component showing this viewport
+     * @param onChange called on the Event Dispatch Thread after every change of the view
+     */
+    public void install(JComponent component, Runnable onChange) {
+        changeListener = onChange;
+        MouseAdapter mouseHandler = new MouseAdapter() {
+            private Point lastDrag;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                lastDrag = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (lastDrag != null) {
+                    pan(e.getX() - lastDrag.x, e.getY() - lastDrag.y);
+                    lastDrag = e.getPoint();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                lastDrag = null;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    reset();
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                // Another listener (e.g. a scrollable table under the cursor) already handled it
+                if (e.isConsumed()) {
+                    return;
+                }
+                zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+            }
+        };
+        component.addMouseListener(mouseHandler);
+        component.addMouseMotionListener(mouseHandler);
+        component.addMouseWheelListener(mouseHandler);
+    }
+
+    /**
+     * Centers content of the given size in a component of the given size, unless the user moved the view.
+     */
+    public void center(int componentWidth, int componentHeight, double contentWidth, double contentHeight) {
+        if (!moved) {
+            scale = 1;
+            offsetX = (int) (componentWidth - contentWidth) / 2;
+            offsetY = (int) (componentHeight - contentHeight) / 2;
+        }
+    }
+
+    /**
+     * Scales and centers content of the given size so it fills the component, as if the user had zoomed to it.
+     */
+    public void fit(int componentWidth, int componentHeight, double contentWidth, double contentHeight) {
+        scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE,
+                Math.min(componentWidth / contentWidth, componentHeight / contentHeight)));
+        offsetX = (componentWidth - contentWidth * scale) / 2;
+        offsetY = (componentHeight - contentHeight * scale) / 2;
+        moved = true;
+        fireChange();
+    }
+
+    /**
+     * Zooms by the given factor, keeping the world point under (screenX, screenY) in place.
+     */
+    public void zoom(double factor, double screenX, double screenY) {
+        double newScale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale * factor));
+        offsetX = screenX - (screenX - offsetX) * newScale / scale;
+        offsetY = screenY - (screenY - offsetY) * newScale / scale;
+        scale = newScale;
+        moved = true;
+        fireChange();
+    }
+
+    /**
+     * Moves the view by the given number of pixels.
+     */
+    public void pan(double dx, double dy) {
+        offsetX += dx;
+        offsetY += dy;
+        moved = true;
+        fireChange();
+    }
+
+    /**
+     * Goes back to the centered, unscaled view.
+     */
+    public void reset() {
+        moved = false;
+        fireChange();
+    }
+
+    private void fireChange() {
+        if (changeListener != null) {
+            changeListener.run();
+        }
+    }
+
+    /**
+     * Returns the world to screen transform.
+     */
+    public AffineTransform getTransform() {
+        AffineTransform transform = AffineTransform.getTranslateInstance(offsetX, offsetY);
+        transform.scale(scale, scale);
+        return transform;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double toScreenX(double worldX) {
+        return worldX * scale + offsetX;
+    }
+
+    public double toScreenY(double worldY) {
+        return worldY * scale + offsetY;
+    }
+
+    /**
+     * Converts a screen rectangle (e.g. a clip) to the world rectangle it shows.
+     */
+    public Rectangle2D toWorld(Rectangle screen) {
+        return new Rectangle2D.Double((screen.x - offsetX) / scale, (screen.y - offsetY) / scale,
+                screen.width / scale, screen.height / scale);
+    }
+}
@@ -0,0 +1,78 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Regression check for AnimationExporter. A BFS on a seeded 20-vertex graph is first run unpaced to count
+ * its steps, then exported with several stepsPerFrame values; every export has to write the first state,
+ * one frame per stepsPerFrame steps and the final state. Every BFS step colors a vertex, so each frame
+ * also has to differ from the one before, except a final state that repeats the frame of the last step;
+ * frames copied from anything but the running algorithm's own state fail that. Lives in the default
+ * package to reach the application classes. Exits with status 1 if a check fails.
+ * Usage: java -cp benchmarks.jar ExportCheck
+ */
+public class ExportCheck {
+    private static final int NUM_VERTICES = 20;
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 300;
+
+    public static void main(String[] args) throws Exception {
+        Graph graph = GraphGenerator.generateRandomGraph(NUM_VERTICES, 0.2, 1, 10, new Random(42));
+        int steps = countSteps(graph);
+        boolean failed = false;
+        for (int stepsPerFrame : new int[] {1, 3, 7, steps + 1}) {
+            FrameComparer frames = new FrameComparer();
+            int written = new AnimationExporter(graph, BFSVisualizer::new, WIDTH, HEIGHT)
+                    .export(visualizer -> ((BFSVisualizer) visualizer).traverse(0), stepsPerFrame, frames);
+            // The first state, every full stepsPerFrame steps and the final state
+            int expected = 2 + steps / stepsPerFrame;
+            boolean ok = written == expected && frames.received == written && frames.unchanged <= 1;
+            System.out.printf("stepsPerFrame %d: %d frames for %d steps, expected %d, %d unchanged%s%n",
+                    stepsPerFrame, written, steps, expected, frames.unchanged, ok ? "" : "  FAILED");
+            failed |= !ok;
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static int countSteps(Graph graph) {
+        GraphPanel.prepareLayout(graph);
+        BFSVisualizer visualizer = new BFSVisualizer(graph);
+        int[] steps = new int[1];
+        visualizer.getScheduler().setStepListener(new AnimationScheduler.StepListener() {
+            @Override
+            public void stepCompleted() {
+                steps[0]++;
+            }
+
+            @Override
+            public void runFinished() {
+            }
+        });
+        visualizer.traverse(0);
+        return steps[0];
+    }
+
+    /**
+     * Counts the frames it receives and how many of them repeat the previous frame pixel for pixel.
+     */
+    private static final class FrameComparer implements AnimationExporter.FrameWriter {
+        int received;
+        int unchanged;
+        private int[] previous;
+
+        @Override
+        public void write(BufferedImage frame) {
+            int[] pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+            if (previous != null && Arrays.equals(previous, pixels)) {
+                unchanged++;
+            }
+            previous = pixels.clone();
+            received++;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
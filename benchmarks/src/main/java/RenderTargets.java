@@ -0,0 +1,81 @@
+import benchmarks.RenderTarget;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class RenderTargets {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    // Average out-degree of the generated graphs, so edge counts grow linearly with the vertex count
+    private static final double AVERAGE_DEGREE = 3;
+    // Runs longer than this (Floyd-Warshall on thousands of vertices) are cut off, leaving a mid-run state
+    private static final long STEP_BUDGET = 5_000_000;
+
+    private static class StepBudgetReached extends RuntimeException {
+        StepBudgetReached() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Creates a visualizer of the given size on a seeded random graph, runs its algorithm to the end and
+     * keeps the final vertex state, so every measured frame shows a finished, fully colored traversal.
+     * Graphs have about three edges per vertex.
+     *
+     * @see RenderTarget#create
+     */
+    public static RenderTarget create(String algorithm, int numVertices, boolean fit) {
+        Graph graph = GraphGenerator.generateRandomGraph(numVertices, Math.min(1, AVERAGE_DEGREE / numVertices),
+                1, 10, new Random(42));
+        GraphPanel visualizer = Workloads.visualizer(algorithm, graph);
+        visualizer.setSize(WIDTH, HEIGHT);
+        if (fit) {
+            visualizer.fitToView();
+        }
+        long[] steps = {0};
+        visualizer.getScheduler().setStepListener(new AnimationScheduler.StepListener() {
+            @Override
+            public void stepCompleted() {
+                if (++steps[0] >= STEP_BUDGET) {
+                    throw new StepBudgetReached();
+                }
+            }
+
+            @Override
+            public void runFinished() {
+            }
+        });
+        try {
+            Workloads.workload(visualizer).run();
+        } catch (StepBudgetReached e) {
+            // Painting a mid-run state costs the same as painting the final one
+        }
+        VertexStateBuffer.Snapshot frame = visualizer.captureSnapshot();
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setFont(visualizer.getFont());
+        Color background = visualizer.getBackground();
+        // The first frame fills the static layer cache and settles the level of detail
+        visualizer.paintFrame(g2d, frame);
+
+        return new RenderTarget() {
+            @Override
+            public void paintFrame() {
+                g2d.setColor(background);
+                g2d.fillRect(0, 0, WIDTH, HEIGHT);
+                visualizer.paintFrame(g2d, frame);
+            }
+
+            @Override
+            public void paintEdges() {
+                visualizer.paintStaticLayer(g2d);
+            }
+
+            @Override
+            public void paintTable() {
+                visualizer.paintTable(g2d, frame);
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+import java.awt.Rectangle;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.JPanel;
+
+/**
+ * Regression check for what the display thread gets to see of a running algorithm. An algorithm thread
+ * writes and steps at full speed through an AnimationScheduler in fast-forward, while a reader takes a
+ * snapshot 60 times per second, as paintComponent does; most snapshots have to be fresh, i.e. taken from a
+ * publish the previous one had not seen, and not handed out stale. A run with pacing off through a
+ * StepListener then has to leave its final state readable. Lives in the default package to reach the
+ * application classes. Exits with status 1 if a check fails.
+ * Usage: java -cp benchmarks.jar SnapshotCheck [seconds]
+ */
+public class SnapshotCheck {
+    private static final int NUM_VERTICES = 100_000;
+    private static final int READ_MILLIS = 16;
+    // Share of the reads that must see a new frame; a reader that only ever gets stale frames sees almost none
+    private static final double MIN_FRESH = 0.8;
+
+    public static void main(String[] args) throws Exception {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+        boolean failed = !checkFastForward(seconds);
+        failed |= !checkUnpaced();
+        if (failed) {
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static boolean checkFastForward(double seconds) throws InterruptedException {
+        VertexStateBuffer buffer = new VertexStateBuffer(NUM_VERTICES, 1);
+        AnimationScheduler scheduler = scheduler(buffer);
+        scheduler.setFastForward(true);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            Random random = new Random(42);
+            for (int i = 0; running.get(); i++) {
+                int vertex = random.nextInt(NUM_VERTICES);
+                buffer.setState(vertex, (byte) (i % 3));
+                buffer.setValue(vertex, 0, i);
+                scheduler.step();
+            }
+            scheduler.finish();
+        }, "writer");
+        writer.start();
+
+        int reads = (int) (seconds * 1000 / READ_MILLIS);
+        int fresh = 0;
+        int stale = 0;
+        long lastSequence = buffer.readSnapshot().getSequence();
+        for (int i = 0; i < reads; i++) {
+            Thread.sleep(READ_MILLIS);
+            VertexStateBuffer.Snapshot snapshot = buffer.readSnapshot();
+            if (buffer.isSnapshotStale()) {
+                stale++;
+            } else if (snapshot.getSequence() != lastSequence) {
+                fresh++;
+            }
+            lastSequence = snapshot.getSequence();
+        }
+        running.set(false);
+        writer.join();
+
+        boolean ok = fresh >= reads * MIN_FRESH;
+        System.out.printf("fast-forward: %d of %d reads fresh, %d stale%s%n", fresh, reads, stale,
+                ok ? "" : "  FAILED");
+        return ok;
+    }
+
+    private static boolean checkUnpaced() {
+        VertexStateBuffer buffer = new VertexStateBuffer(NUM_VERTICES, 1);
+        AnimationScheduler scheduler = scheduler(buffer);
+        scheduler.setStepListener(new AnimationScheduler.StepListener() {
+            @Override
+            public void stepCompleted() {
+            }
+
+            @Override
+            public void runFinished() {
+            }
+        });
+        for (int vertex = 0; vertex < NUM_VERTICES; vertex++) {
+            buffer.setState(vertex, VertexStateBuffer.BLACK);
+            buffer.setValue(vertex, 0, vertex);
+            scheduler.step();
+        }
+        scheduler.finish();
+
+        VertexStateBuffer.Snapshot snapshot = buffer.readSnapshot();
+        int wrong = 0;
+        for (int vertex = 0; vertex < NUM_VERTICES; vertex++) {
+            if (snapshot.getState(vertex) != VertexStateBuffer.BLACK || snapshot.getValue(vertex, 0) != vertex) {
+                wrong++;
+            }
+        }
+        boolean ok = !buffer.isSnapshotStale() && wrong == 0;
+        System.out.printf("unpaced: %d of %d vertices missing from the final frame%s%n", wrong, NUM_VERTICES,
+                ok ? "" : "  FAILED");
+        return ok;
+    }
+
+    // A scheduler whose repaints go to a panel that is never shown
+    private static AnimationScheduler scheduler(VertexStateBuffer buffer) {
+        DirtyRegionRepainter repainter = new DirtyRegionRepainter(new JPanel(), buffer, vertex -> new Rectangle(),
+                vertex -> new Rectangle());
+        return new AnimationScheduler(buffer, repainter, 2);
+    }
+}
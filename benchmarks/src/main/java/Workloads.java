@@ -0,0 +1,143 @@
+import benchmarks.Workload;
+import java.util.Random;
+
+public class Workloads {
+    /**
+     * Creates a visualizer on a seeded random graph whose runs take no time between steps and only publish
+     * their final state, so benchmarks measure traverse alone. The layout is computed here, up front, so no
+     * background layout thread competes with the measurement.
+     *
+     * @see Workload#create
+     */
+    public static Workload create(String algorithm, int numVertices, double edgeProbability, int minWeight,
+                                  int maxWeight, long seed) {
+        Graph graph = GraphGenerator.generateRandomGraph(numVertices, edgeProbability, minWeight, maxWeight,
+                new Random(seed));
+        return workload(visualizer(algorithm, graph));
+    }
+
+    /**
+     * Creates a visualizer on a grid or torus ImplicitGraph of about numVertices vertices, as square as
+     * possible, which the algorithm reads directly instead of a stored copy.
+     *
+     * @see Workload#implicit
+     */
+    public static Workload createImplicit(String algorithm, String topology, int numVertices, int minWeight,
+                                          int maxWeight, long seed) {
+        int rows = (int) Math.round(Math.sqrt(numVertices));
+        int cols = numVertices / rows;
+        Graph graph;
+        switch (topology) {
+            case "grid":
+                graph = ImplicitGraph.grid(rows, cols, seed, minWeight, maxWeight);
+                break;
+            case "torus":
+                graph = ImplicitGraph.torus(rows, cols, seed, minWeight, maxWeight);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown topology: " + topology);
+        }
+        return workload(visualizer(algorithm, graph));
+    }
+
+    /**
+     * Creates a GraphAlgorithms run, as BatchCli and QueryService make them, on the same seeded random graph
+     * as create, stored as a CsrGraph. The workspace and the result arrays are allocated here, once.
+     *
+     * @see Workload#batch
+     */
+    public static Workload createBatch(String algorithm, int numVertices, double edgeProbability, int minWeight,
+                                       int maxWeight, long seed) {
+        Graph graph = CsrGraph.copyOf(GraphGenerator.generateRandomGraph(numVertices, edgeProbability, minWeight,
+                maxWeight, new Random(seed)));
+        GraphAlgorithms.Workspace workspace = new GraphAlgorithms.Workspace(numVertices);
+        int[] result = new int[numVertices];
+        switch (algorithm) {
+            case "dfs":
+                return () -> GraphAlgorithms.dfs(graph, 0, result, workspace, null);
+            case "bfs":
+                return () -> GraphAlgorithms.bfs(graph, 0, -1, result, workspace, null);
+            case "dijkstra":
+                return () -> GraphAlgorithms.dijkstra(graph, 0, -1, result, workspace, null);
+            case "bf":
+                return () -> GraphAlgorithms.bellmanFord(graph, 0, result, null);
+            case "fw": {
+                int[][] distances = new int[numVertices][numVertices];
+                return () -> GraphAlgorithms.floydWarshall(graph, distances, null);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Creates a minimum spanning forest computation on a seeded random graph of the given out-degree, stored
+     * as a CsrGraph, without any visualizer.
+     *
+     * @see Workload#spanningForest
+     */
+    public static Workload createSpanningForest(String algorithm, int numVertices, int degree, long seed) {
+        Graph graph = CsrGraph.copyOf(ImplicitGraph.random(numVertices, degree, seed, 1, 1000));
+        switch (algorithm) {
+            case "boruvka":
+                return () -> MinimumSpanningForest.boruvka(graph);
+            case "kruskal":
+                return () -> MinimumSpanningForest.kruskal(graph);
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    /**
+     * Lays out the graph and creates the visualizer of an algorithm on it, with pacing disabled.
+     */
+    static GraphPanel visualizer(String algorithm, Graph graph) {
+        GraphPanel.prepareLayout(graph);
+        GraphPanel visualizer;
+        switch (algorithm) {
+            case "dfs":
+                visualizer = new DFSVisualizer(graph);
+                break;
+            case "bfs":
+                visualizer = new BFSVisualizer(graph);
+                break;
+            case "dijkstra":
+                visualizer = new DijkstrasVisualizer(graph);
+                break;
+            case "bf":
+                visualizer = new BFVisualizer(graph);
+                break;
+            case "fw":
+                visualizer = new FWVisualizer(graph);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+        visualizer.getScheduler().setStepListener(new AnimationScheduler.StepListener() {
+            @Override
+            public void stepCompleted() {
+            }
+
+            @Override
+            public void runFinished() {
+            }
+        });
+        return visualizer;
+    }
+
+    /**
+     * Returns a full run of the visualizer's algorithm from vertex 0.
+     */
+    static Workload workload(GraphPanel visualizer) {
+        if (visualizer instanceof DFSVisualizer) {
+            return () -> ((DFSVisualizer) visualizer).traverse(0);
+        } else if (visualizer instanceof BFSVisualizer) {
+            return () -> ((BFSVisualizer) visualizer).traverse(0);
+        } else if (visualizer instanceof DijkstrasVisualizer) {
+            return () -> ((DijkstrasVisualizer) visualizer).traverse(0);
+        } else if (visualizer instanceof BFVisualizer) {
+            return () -> ((BFVisualizer) visualizer).traverse(0);
+        }
+        return ((FWVisualizer) visualizer)::traverse;
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocation regression check for the traversal hot paths. Every algorithm is run until warmed up, then
+ * the bytes the thread allocates per run are measured with com.sun.management.ThreadMXBean and compared to
+ * a per-algorithm budget. The engines keep their working arrays between runs, so what remains per run is a
+ * fixed cost (the run's counters and their MBean registration) that does not grow with the graph; a single
+ * boxed queue entry per edge exceeds the budgets many times over. The same algorithms run by GraphAlgorithms,
+ * without counters, have no such cost and a budget of their own, well below one object per vertex.
+ * Exits with status 1 if any algorithm is over budget.
+ * Usage: java -cp benchmarks.jar benchmarks.AllocationCheck [runs]
+ */
+public class AllocationCheck {
+    private static final int WARMUP_RUNS = 200;
+    private static final int DEFAULT_RUNS = 50;
+    // GraphAlgorithms allocates nothing per run; this leaves room for the measurement itself
+    private static final long BATCH_BUDGET = 256;
+
+    /**
+     * One algorithm on one seeded graph, run by its visualizer or by GraphAlgorithms, with its budget.
+     */
+    private static final class Case {
+        final String algorithm;
+        final boolean batch;
+        final int numVertices;
+        final double edgeProbability;
+        final long budgetBytesPerRun;
+
+        Case(String algorithm, boolean batch, int numVertices, double edgeProbability, long budgetBytesPerRun) {
+            this.algorithm = algorithm;
+            this.batch = batch;
+            this.numVertices = numVertices;
+            this.edgeProbability = edgeProbability;
+            this.budgetBytesPerRun = budgetBytesPerRun;
+        }
+    }
+
+    // Graphs of a few thousand vertices and edges, so anything allocated per vertex or per edge shows up
+    private static final List<Case> CASES = List.of(
+            new Case("dfs", false, 2000, 0.004, 8 * 1024),
+            new Case("bfs", false, 2000, 0.004, 8 * 1024),
+            new Case("dijkstra", false, 2000, 0.004, 8 * 1024),
+            new Case("bf", false, 200, 0.02, 8 * 1024),
+            new Case("fw", false, 100, 0.05, 8 * 1024),
+            new Case("dfs", true, 2000, 0.004, BATCH_BUDGET),
+            new Case("bfs", true, 2000, 0.004, BATCH_BUDGET),
+            new Case("dijkstra", true, 2000, 0.004, BATCH_BUDGET),
+            new Case("bf", true, 200, 0.02, BATCH_BUDGET),
+            new Case("fw", true, 100, 0.05, BATCH_BUDGET));
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM does not report allocated bytes per thread");
+            System.exit(2);
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        List<String> failures = new ArrayList<>();
+        System.out.printf("%-10s %-16s %8s %14s %14s%n", "algorithm", "engine", "vertices", "bytes/run", "budget");
+        for (Case check : CASES) {
+            String engine = check.batch ? "GraphAlgorithms" : "visualizer";
+            Workload workload = check.batch
+                    ? Workload.batch(check.algorithm, check.numVertices, check.edgeProbability, "1..10", 42)
+                    : Workload.create(check.algorithm, check.numVertices, check.edgeProbability, "1..10", 42);
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                workload.run();
+            }
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < runs; i++) {
+                workload.run();
+            }
+            long perRun = (allocations.getThreadAllocatedBytes(threadId) - before) / runs;
+            boolean over = perRun > check.budgetBytesPerRun;
+            System.out.printf("%-10s %-16s %8d %14d %14d%s%n", check.algorithm, engine, check.numVertices, perRun,
+                    check.budgetBytesPerRun, over ? "  OVER BUDGET" : "");
+            if (over) {
+                failures.add(check.algorithm + " (" + engine + ")");
+            }
+        }
+        if (!failures.isEmpty()) {
+            System.err.println("Allocation budget exceeded by " + String.join(", ", failures));
+            System.exit(1);
+        }
+    }
+}
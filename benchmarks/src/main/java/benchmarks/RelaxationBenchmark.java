@@ -0,0 +1,40 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Throughput of Bellman-Ford, O(V * E), and Floyd-Warshall, O(V^3), which need far smaller graphs than
+ * the traversals. Weights are non-negative so that no run stops early on a negative cycle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RelaxationBenchmark {
+    @Param({"bf", "fw"})
+    public String algorithm;
+
+    @Param({"25", "50", "100", "200"})
+    public int numVertices;
+
+    @Param({"0.05", "0.2"})
+    public double edgeProbability;
+
+    @Param({"1..10", "1..1000"})
+    public String weightRange;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.create(algorithm, numVertices, edgeProbability, weightRange, 42);
+    }
+
+    @Benchmark
+    public void traverse() {
+        workload.run();
+    }
+}
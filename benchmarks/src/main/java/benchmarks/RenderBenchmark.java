@@ -0,0 +1,48 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of one frame, painted headless into a 1280x720 offscreen image: a whole frame as paintComponent
+ * draws it, a redraw of the edge layer, and the table alone. Sample time mode reports latency percentiles
+ * (p50 to p99.99); run with -prof gc for the allocations per frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    @Param({"dfs", "bfs", "dijkstra", "bf", "fw"})
+    public String algorithm;
+
+    @Param({"50", "500", "5000"})
+    public int numVertices;
+
+    @Param({"actual", "fit"})
+    public String view;
+
+    private RenderTarget target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        target = RenderTarget.create(algorithm, numVertices, view);
+    }
+
+    @Benchmark
+    public void paintFrame() {
+        target.paintFrame();
+    }
+
+    @Benchmark
+    public void paintEdges() {
+        target.paintEdges();
+    }
+
+    @Benchmark
+    public void paintTable() {
+        target.paintTable();
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+/**
+ * One visualizer painting into an offscreen image, split into the parts of a frame. Built by the default
+ * package class RenderTargets, like Workload.
+ */
+public interface RenderTarget {
+    /**
+     * Paints a whole frame as paintComponent does, with the edges coming from the cached static layer.
+     */
+    void paintFrame();
+
+    /**
+     * Redraws the static layer: the visible edges, arrowheads and weight labels.
+     */
+    void paintEdges();
+
+    /**
+     * Paints the table of values.
+     */
+    void paintTable();
+
+    /**
+     * Builds a render target through RenderTargets.create.
+     *
+     * @param algorithm dfs, bfs, dijkstra, bf or fw
+     * @param numVertices the number of vertices of the random graph
+     * @param view "fit" to show the whole graph, "actual" for the unzoomed view
+     * @return the render target
+     */
+    static RenderTarget create(String algorithm, int numVertices, String view) {
+        try {
+            return (RenderTarget) Class.forName("RenderTargets")
+                    .getMethod("create", String.class, int.class, boolean.class)
+                    .invoke(null, algorithm, numVertices, view.equals("fit"));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the " + algorithm + " render target", e);
+        }
+    }
+}
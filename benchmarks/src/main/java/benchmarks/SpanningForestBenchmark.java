@@ -0,0 +1,38 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Time of a whole minimum spanning forest computation with parallel Boruvka and with Kruskal, whose only
+ * parallel part is the edge sort, on random graphs far larger than the visualizers can show. Run it with
+ * different -t or -Djava.util.concurrent.ForkJoinPool.common.parallelism values to see how each scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SpanningForestBenchmark {
+    @Param({"boruvka", "kruskal"})
+    public String algorithm;
+
+    @Param({"100000", "1000000"})
+    public int numVertices;
+
+    @Param({"4", "16"})
+    public int degree;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.spanningForest(algorithm, numVertices, degree, 42);
+    }
+
+    @Benchmark
+    public void spanningForest() {
+        workload.run();
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Throughput of the single-source traversals, O(V + E) or O(E log V), on sparse random graphs stored in
+ * adjacency lists, and on grid ImplicitGraphs that compute every neighbor and weight on demand instead.
+ * edgeProbability only applies to the random graphs. The numVertices parameter gives the scaling curve;
+ * run with -prof gc for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TraversalBenchmark {
+    @Param({"dfs", "bfs", "dijkstra"})
+    public String algorithm;
+
+    @Param({"100", "1000", "5000"})
+    public int numVertices;
+
+    @Param({"0.001", "0.01"})
+    public double edgeProbability;
+
+    @Param({"1..10", "1..1000"})
+    public String weightRange;
+
+    // random, or an implicit grid or torus of about numVertices vertices, read without being copied
+    @Param({"random", "grid"})
+    public String graph;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = graph.equals("random")
+                ? Workload.create(algorithm, numVertices, edgeProbability, weightRange, 42)
+                : Workload.implicit(algorithm, graph, numVertices, weightRange, 42);
+    }
+
+    @Benchmark
+    public void traverse() {
+        workload.run();
+    }
+}
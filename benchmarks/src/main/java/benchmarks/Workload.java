@@ -0,0 +1,100 @@
+package benchmarks;
+
+/**
+ * One algorithm run on one generated graph, with visualization disabled. The application classes live in
+ * the default package, which JMH benchmarks cannot reference, so workloads are built by the default
+ * package class Workloads and handed over through this interface.
+ */
+public interface Workload {
+    /**
+     * Runs the algorithm once, from scratch.
+     */
+    void run();
+
+    /**
+     * Builds a workload through Workloads.create.
+     *
+     * @param algorithm dfs, bfs, dijkstra, bf or fw
+     * @param numVertices the number of vertices of the random graph
+     * @param edgeProbability the probability of every edge
+     * @param weightRange the edge weights as "min..max", max exclusive, as in GraphGenerator
+     * @param seed the seed of the graph
+     * @return the workload
+     */
+    static Workload create(String algorithm, int numVertices, double edgeProbability, String weightRange, long seed) {
+        String[] bounds = weightRange.split("\\.\\.");
+        try {
+            return (Workload) Class.forName("Workloads")
+                    .getMethod("create", String.class, int.class, double.class, int.class, int.class, long.class)
+                    .invoke(null, algorithm, numVertices, edgeProbability,
+                            Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]), seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the " + algorithm + " workload", e);
+        }
+    }
+
+    /**
+     * Builds a workload through Workloads.createImplicit, on a graph whose edges are computed on demand.
+     *
+     * @param algorithm dfs, bfs, dijkstra, bf or fw
+     * @param topology grid or torus
+     * @param numVertices about the number of vertices; the graph is as square as possible
+     * @param weightRange the edge weights as "min..max", max exclusive
+     * @param seed the seed of the weights
+     * @return the workload
+     */
+    static Workload implicit(String algorithm, String topology, int numVertices, String weightRange, long seed) {
+        String[] bounds = weightRange.split("\\.\\.");
+        try {
+            return (Workload) Class.forName("Workloads")
+                    .getMethod("createImplicit", String.class, String.class, int.class, int.class, int.class,
+                            long.class)
+                    .invoke(null, algorithm, topology, numVertices, Integer.parseInt(bounds[0]),
+                            Integer.parseInt(bounds[1]), seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the " + algorithm + " workload", e);
+        }
+    }
+
+    /**
+     * Builds a workload through Workloads.createBatch: the same algorithm on the same graph, run by
+     * GraphAlgorithms without a visualizer.
+     *
+     * @param algorithm dfs, bfs, dijkstra, bf or fw
+     * @param numVertices the number of vertices of the random graph
+     * @param edgeProbability the probability of every edge
+     * @param weightRange the edge weights as "min..max", max exclusive, as in GraphGenerator
+     * @param seed the seed of the graph
+     * @return the workload
+     */
+    static Workload batch(String algorithm, int numVertices, double edgeProbability, String weightRange, long seed) {
+        String[] bounds = weightRange.split("\\.\\.");
+        try {
+            return (Workload) Class.forName("Workloads")
+                    .getMethod("createBatch", String.class, int.class, double.class, int.class, int.class, long.class)
+                    .invoke(null, algorithm, numVertices, edgeProbability,
+                            Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]), seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the " + algorithm + " workload", e);
+        }
+    }
+
+    /**
+     * Builds a minimum spanning forest workload through Workloads.createSpanningForest.
+     *
+     * @param algorithm boruvka or kruskal
+     * @param numVertices the number of vertices of the random graph
+     * @param degree the out-degree of every vertex
+     * @param seed the seed of the graph
+     * @return the workload
+     */
+    static Workload spanningForest(String algorithm, int numVertices, int degree, long seed) {
+        try {
+            return (Workload) Class.forName("Workloads")
+                    .getMethod("createSpanningForest", String.class, int.class, int.class, long.class)
+                    .invoke(null, algorithm, numVertices, degree, seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the " + algorithm + " workload", e);
+        }
+    }
+}